@@ -10,12 +10,18 @@ import com.models.Game;
 import com.models.Setting;
 import com.models.User;
 import com.util.API;
+import com.util.AssetPreloader;
 import com.util.Modal;
+import com.util.MutationJournal;
+import com.util.PersistenceService;
+import com.util.PlatformCapabilities;
 import com.util.Sounds;
 import com.util.TTS;
+import com.util.TickScheduler;
+import com.util.ViewCache;
 
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
@@ -29,12 +35,15 @@ public class MainApp extends Application {
     private static Stage stage;
     private static Views view;
     private static StackPane stackPane;
+    private static Scene scene;
+    private static ViewCache viewCache;
     private static Game state;
     private static User user;
     private static Setting setting;
     private static TTS tts;
     private static GlobalTimer globalTimer;
     private static API api;
+    private static AssetPreloader assetPreloader;
 
     //// Private Methods ////
 
@@ -97,14 +106,14 @@ public class MainApp extends Application {
     }
 
     /**
-     * Get the current settings. Will automatically initalise settings with default
-     * values if not exist.
+     * Get the current settings. Will automatically initalise settings with the
+     * saved values, or the defaults if there are none.
      * 
      * @return settings
      */
     public static Setting getSetting() {
         if (setting == null)
-            setting = new Setting(); // Init default settings
+            setting = Setting.load(); // Saved settings, or the defaults
         return setting;
     }
 
@@ -136,7 +145,9 @@ public class MainApp extends Application {
     }
 
     /**
-     * Set a new root application pane
+     * Set a new root application pane. The scene is kept for the life of the
+     * application, only the view inside it is swapped, and views which have been
+     * shown before are reused from the view cache where possible.
      * 
      * @param view the view to load
      */
@@ -146,17 +157,15 @@ public class MainApp extends Application {
 
         try {
             MainApp.view = view;
-            stackPane = new StackPane();
-            stackPane.getChildren()
-                    .add(new FXMLLoader(MainApp.class.getResource("/fxml/" + view.getFileName() + ".fxml")).load());
-            Scene scene = new Scene(stackPane);
-            if (view == Views.QUIZ) {
-                scene.getStylesheets().add(MainApp.class.getResource("/styles/quiz.css").toExternalForm());
-            } else {
-                scene.getStylesheets().add(MainApp.class.getResource("/styles/application.css").toExternalForm());
-            }
+            Parent root = viewCache.get(view);
+            stackPane.getChildren().setAll(root); // Also closes any open modals
+            String stylesheet = MainApp.class
+                    .getResource(view == Views.QUIZ ? "/styles/quiz.css" : "/styles/application.css").toExternalForm();
+            if (scene.getStylesheets().size() != 1 || !scene.getStylesheets().contains(stylesheet))
+                scene.getStylesheets().setAll(stylesheet);
             stage.setTitle(view.getWindowName());
-            stage.setScene(scene);
+            if (stage.getScene() != scene)
+                stage.setScene(scene);
             stage.show();
         } catch (IOException e) {
             System.err.println("Unable to set root for fxml: " + view.getFileName());
@@ -191,6 +200,16 @@ public class MainApp extends Application {
         return globalTimer;
     }
 
+    /**
+     * Get the preloader which loads the assets of the heavier views in the
+     * background, i.e. to show its progress.
+     * 
+     * @return the asset preloader, or null if the application hasn't started
+     */
+    public static AssetPreloader getAssetPreloader() {
+        return assetPreloader;
+    }
+
     /**
      * Collect a instance of the api. Will automatically initalise if needed.
      * 
@@ -206,7 +225,23 @@ public class MainApp extends Application {
     public void start(Stage s) {
         stage = s;
         stage.setResizable(false);
+        PlatformCapabilities.probe(); // Ready before the menu music starts
+        stackPane = new StackPane();
+        scene = new Scene(stackPane);
+        viewCache = new ViewCache();
+        getAPI(); // Start fetching prices before the shop is opened
+        try {
+            MutationJournal.get(); // Send any changes left over from last time
+        } catch (IOException e) {
+            System.err.println("Unable to open journal: " + e);
+        }
+        // Decode the assets of the heavier views while the menu is up
+        assetPreloader = new AssetPreloader();
+        assetPreloader.start(Views.QUIZ, Views.RESULTS, Views.REWARD, Views.SHOP, Views.ACHIEVEMENT, Views.PROFILE,
+                Views.WHEEL);
+        Sounds.preloadEffects(); // So the first button click isn't delayed
         setRoot(Views.MENU);
+        viewCache.preload(Views.GAMEMODE, Views.TOPIC, Views.SIGNIN); // The views most often switched to
     }
 
     /**
@@ -215,7 +250,15 @@ public class MainApp extends Application {
     @Override
     public void stop() {
         if (tts != null)
-            tts.stopSpeech();
+            tts.shutdown();
+        Sounds.shutdown();
+        TickScheduler.get().shutdown();
+        PersistenceService.get().shutdown(); // Make sure nothing waiting to be saved is lost
+        try {
+            MutationJournal.get().shutdown();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     public static void main(String[] args) {
@@ -1,11 +1,14 @@
 package com.components;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Random;
 
 import com.MainApp;
 import com.controllers.views.Quiz;
 import com.enums.Status;
 import com.models.Word;
+import com.util.AnswerMatcher;
 
 import javafx.scene.Node;
 import javafx.scene.control.Label;
@@ -38,12 +41,23 @@ public class InputField extends TextField {
     private static int cursor;
     private static boolean isInputEmpty;
 
+    // pooled tiles, tile i is only ever shown at index i. reused across words, and
+    // only grown when a longer word comes along
+    private static final ArrayList<TextField> inputPool = new ArrayList<>();
+    private static final ArrayList<Label> hintPool = new ArrayList<>();
+    private static final ArrayList<Node> shownItems = new ArrayList<>();
+    // reused for assembling the input, one code point per tile
+    private static int[] inputBuffer = new int[0];
+    private static final Random random = new Random();
+
     // fields for styling
     private static int offset = 10;
     private static int inputTileWidth = 73;
     private static int leftMargin = 397;
     private static int bottomMargin = 50;
     private static int totalWidth = 908;
+    private static final Font hintFont = Font.font("System", FontWeight.BOLD, 30);
+    private static final String hintTileStyle = "-fx-background-color: #5F7E79";
 
     /**
      * configures the input field with a given word, quiz controller, and submit
@@ -68,23 +82,23 @@ public class InputField extends TextField {
     public static void reconfigureInputField(Word word) {
         currentWord = word;
         wordSize = currentWord.getMaori().length();
-        isInputEmpty = true; // assumes empty initially and checks if actually not empty in getInput()
+        isInputEmpty = true; // assumes empty initially and checks if actually not empty in readInput()
 
         // remove all elements
-        removeAll(inputItems);
-        removeAll(hintItems);
+        root.getChildren().removeAll(shownItems);
+        shownItems.clear();
 
-        inputItems = new TextField[wordSize];
-        hintItems = new Label[wordSize];
+        ensureCapacity();
 
         // ensures centreing and populated input and hint items
         alterCentre();
         createHintItems();
         createInputFields();
 
-        // adds all elements
+        // adds all elements, inputs first so hints are drawn on top
         addAll(inputItems);
         addAll(hintItems);
+        root.getChildren().addAll(shownItems);
 
         // sets cursor in correct position
         cursor = getNextValidIndex(-1, true);
@@ -113,8 +127,7 @@ public class InputField extends TextField {
      */
     private static void submit() {
         // construct word from input
-        Word input = new Word();
-        input.setMaori(getInput());
+        Word input = Word.fromMaoriCodePoints(inputBuffer, readInput());
 
         // call onEnter() method from Quiz controller
         controller.onEnter(input, isInputEmpty);
@@ -133,20 +146,36 @@ public class InputField extends TextField {
         leftMargin = 397 - additionalOffset;
     }
 
+    /**
+     * make sure there are enough pooled tiles for the current word, and clear the
+     * items left over from the last word
+     */
+    private static void ensureCapacity() {
+        if (inputItems == null || inputItems.length < wordSize) {
+            inputItems = new TextField[wordSize];
+            hintItems = new Label[wordSize];
+            inputBuffer = new int[wordSize];
+        } else {
+            Arrays.fill(inputItems, null);
+            Arrays.fill(hintItems, null);
+        }
+
+        while (inputPool.size() < wordSize) {
+            inputPool.add(createInputItem(inputPool.size()));
+            hintPool.add(createHintItem());
+        }
+    }
+
     /**
      * create the input fields
      */
     private static void createInputFields() {
-        for (int i = 0; i < inputItems.length; i++) {
+        for (int i = 0; i < wordSize; i++) {
             TextField n = null;
-            if (!getCharacter(i).equals(" ")) { // if the character at index i is not a space
-                if (hintItems[i] != null) {
-                    // has hint
-                    n = createInputItem(i, false);
-                } else {
-                    // is inputtable
-                    n = createInputItem(i, true);
-                }
+            if (currentWord.getMaori().charAt(i) != ' ') { // if the character at index i is not a space
+                n = inputPool.get(i);
+                // is inputtable if it has no hint
+                resetInputItem(n, i, hintItems[i] == null);
             }
             inputItems[i] = n;
         }
@@ -164,7 +193,7 @@ public class InputField extends TextField {
 
         for (int i = 0; i < numOfHints; i++) {
             // obtain trialIndex which is an index to which a hint can be added at
-            int trialIndex = new Random().nextInt(wordSize);
+            int trialIndex = random.nextInt(wordSize);
 
             while (hintItems[trialIndex] != null) {
                 trialIndex++;
@@ -172,12 +201,9 @@ public class InputField extends TextField {
                     trialIndex -= wordSize;
             }
 
-            // create hintItem
-            Label hintItem = new Label(getCharacter(trialIndex));
-
-            // configure entry
-            hintItem.setFont(Font.font("System", FontWeight.BOLD, 30));
-            hintItem.setTextFill(Color.WHITE);
+            // configure pooled hintItem
+            Label hintItem = hintPool.get(trialIndex);
+            hintItem.setText(getCharacter(trialIndex));
             setPositioning(hintItem, trialIndex);
 
             // add hint item
@@ -196,55 +222,89 @@ public class InputField extends TextField {
     }
 
     /**
-     * create and input item
+     * create a pooled input item, which is only ever shown at the given index
      * @param num
-     * @param isInputtable
      * @return
      */
-    private static TextField createInputItem(int num, boolean isInputtable) {
+    private static TextField createInputItem(int num) {
         TextField inputItem = new TextField();
 
         // configure input
         inputItem.setMaxSize(inputTileWidth, inputTileWidth - 5);
         inputItem.setPrefSize(inputTileWidth, inputTileWidth - 5);
+        addHandler(inputItem, num);
+
+        return inputItem;
+    }
+
+    /**
+     * create a pooled hint item
+     * @return
+     */
+    private static Label createHintItem() {
+        Label hintItem = new Label();
+        hintItem.setFont(hintFont);
+        hintItem.setTextFill(Color.WHITE);
+        return hintItem;
+    }
+
+    /**
+     * reset a pooled input item for the current word, clearing anything left over
+     * from the last word
+     * @param inputItem
+     * @param num
+     * @param isInputtable
+     */
+    private static void resetInputItem(TextField inputItem, int num, boolean isInputtable) {
+        inputItem.clear();
+        inputItem.setDisable(false);
         setPositioning(inputItem, num);
 
         if (isInputtable) {
             // regular text field
-            addHandler(inputItem, num);
+            inputItem.setStyle("");
+            inputItem.setEditable(true);
         } else {
             // hint item
-            inputItem.setStyle("-fx-background-color: #5F7E79");
+            inputItem.setStyle(hintTileStyle);
             inputItem.setEditable(false);
         }
-
-        return inputItem;
     }
 
     /**
-     * obtain the input from the custom input field
+     * check whether the tile at an index can be typed in for the current word
+     * @param num
      * @return
      */
-    private static String getInput() {
-        String input = "";
-        for (int index = 0; index < inputItems.length; index++) {
+    private static boolean isInputtable(int num) {
+        return num < wordSize && inputItems[num] != null && hintItems[num] == null;
+    }
+
+    /**
+     * read the input from the custom input field into the input buffer, lowercased
+     * with one code point per tile. an empty tile is read as 0, so the buffer lines
+     * up with the word
+     * @return the number of code points read
+     */
+    private static int readInput() {
+        String maori = currentWord.getMaori();
+        for (int index = 0; index < wordSize; index++) {
             if (inputItems[index] != null && hintItems[index] == null) {
                 // add text
-                input += inputItems[index].getText();
-
-                // if any inputtable textfield is not empty, set isInputEmpty to false
-                if (!inputItems[index].getText().isEmpty())
+                String text = inputItems[index].getText();
+                if (text.isEmpty()) {
+                    inputBuffer[index] = 0;
+                } else {
+                    inputBuffer[index] = Character.toLowerCase(AnswerMatcher.readCharacter(text));
+                    // if any inputtable textfield is not empty, set isInputEmpty to false
                     isInputEmpty = false;
-
-            } else if (hintItems[index] != null) {
-                // add hint letter
-                input += hintItems[index].getText();
+                }
             } else {
-                // add space
-                input += " ";
+                // add hint letter or space, straight from the word
+                inputBuffer[index] = maori.charAt(index);
             }
         }
-        return input;
+        return wordSize;
     }
 
     /**
@@ -273,13 +333,16 @@ public class InputField extends TextField {
     }
 
     /**
-     * add handler to input item
+     * add handler to input item, the handlers are kept across words but ignore the
+     * tile while it isn't inputtable
      * 
      * @param inputItem
      * @param num
      */
     private static void addHandler(TextField inputItem, int num) {
         inputItem.addEventHandler(KeyEvent.KEY_RELEASED, event -> {
+            if (!isInputtable(num))
+                return;
             if (event.getCode() == KeyCode.ENTER) {
                 // on enter, submit
                 submit();
@@ -290,13 +353,15 @@ public class InputField extends TextField {
         });
 
         inputItem.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
-            if (event.getCode() == KeyCode.BACK_SPACE) {
+            if (isInputtable(num) && event.getCode() == KeyCode.BACK_SPACE) {
                 // on backspace, remove
                 removeCharacter(inputItem);
             }
         });
 
         inputItem.setOnMouseClicked(e -> {
+            if (!isInputtable(num))
+                return;
             // set the cursor and focus on click
             cursor = num;
             recursor();
@@ -311,11 +376,22 @@ public class InputField extends TextField {
     private static void insertCharacter(TextField inputItem) {
         String in = inputItem.getText();
 
+        // a macron typed on its own, after the vowel was already moved past, belongs
+        // to the vowel in the tile before
+        int previousIndex = getNextValidIndex(cursor, false);
+        if (!in.isEmpty() && in.codePoints().allMatch(c -> c == AnswerMatcher.combiningMacron)
+                && previousIndex >= 0 && !inputItems[previousIndex].getText().isEmpty()) {
+            TextField previous = inputItems[previousIndex];
+            previous.setText(AnswerMatcher.lastCharacter(previous.getText() + in));
+            inputItem.clear();
+            return;
+        }
+
         // code to ensure that there is only one character in the input field. error
         // tolerance in case people type fast. always takes last character and replaces
-        // the rest
+        // the rest, keeping a vowel and the macron typed after it together
         if (in.length() != 0) {
-            String c = Character.toString(in.charAt(in.length() - 1));
+            String c = AnswerMatcher.lastCharacter(in);
             inputItem.clear();
             inputItem.setText(c);
             inputItem.positionCaret(1);
@@ -362,10 +438,13 @@ public class InputField extends TextField {
         if (inputItems == null)
             return;
 
-        // add correct spelling with red background
-        for (int ind = 0; ind < inputItems.length; ind++) {
+        // add correct spelling, with a red background where the response was wrong
+        boolean[] correct = currentWord.getCorrectCharacters();
+        String failedStyle = "-fx-background-color: #" + colour.toString().substring(2);
+        for (int ind = 0; ind < wordSize; ind++) {
             if (inputItems[ind] != null) {
-                inputItems[ind].setStyle("-fx-background-color: #" + colour.toString().substring(2));
+                boolean isCorrect = correct != null && ind < correct.length && correct[ind];
+                inputItems[ind].setStyle(isCorrect ? hintTileStyle : failedStyle);
                 inputItems[ind].setText(getCharacter(ind));
                 inputItems[ind].setEditable(false);
             }
@@ -414,14 +493,14 @@ public class InputField extends TextField {
     }
 
     /**
-     * add all elements of a certain node array
+     * add all elements of a certain node array to the shown items
      * 
      * @param items
      */
     private static void addAll(Node[] items) {
         for (Node n : items) {
             if (n != null) {
-                root.getChildren().add(n);
+                shownItems.add(n);
             }
         }
     }
@@ -3,6 +3,7 @@ package com.components;
 import com.MainApp;
 import com.enums.Status;
 import com.models.Word;
+import com.util.AssetCache;
 import com.util.Sounds;
 
 import javafx.animation.PauseTransition;
@@ -10,7 +11,6 @@ import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
@@ -81,13 +81,13 @@ public class ResultsList extends TextField {
 
         switch (word.getStatus()) {
         case MASTERED:
-            img = new ImageView(new Image(MainApp.class.getResource("/assets/Results/tick.png").toString(), true));
+            img = new ImageView(AssetCache.getResourceImage("/assets/Results/tick.png"));
             break;
         case FAILED:
-            img = new ImageView(new Image(MainApp.class.getResource("/assets/Results/cross.png").toString(), true));
+            img = new ImageView(AssetCache.getResourceImage("/assets/Results/cross.png"));
             break;
         default:
-            img = new ImageView(new Image(MainApp.class.getResource("/assets/Results/skip.png").toString(), true));
+            img = new ImageView(AssetCache.getResourceImage("/assets/Results/skip.png"));
             break;
         }
 
@@ -111,13 +111,13 @@ public class ResultsList extends TextField {
 
         switch (word.getStatus()) {
         case MASTERED:
-            img = new ImageView(new Image(MainApp.class.getResource("/assets/Results/green.png").toString(), true));
+            img = new ImageView(AssetCache.getResourceImage("/assets/Results/green.png"));
             break;
         case FAILED:
-            img = new ImageView(new Image(MainApp.class.getResource("/assets/Results/red.png").toString(), true));
+            img = new ImageView(AssetCache.getResourceImage("/assets/Results/red.png"));
             break;
         default:
-            img = new ImageView(new Image(MainApp.class.getResource("/assets/Results/brown.png").toString(), true));
+            img = new ImageView(AssetCache.getResourceImage("/assets/Results/brown.png"));
             break;
         }
 
@@ -146,7 +146,7 @@ public class ResultsList extends TextField {
         // configure font
         l.setPrefSize(900, 47.0);
         l.setTextFill(Color.WHITE);
-        Font font = Font.loadFont(MainApp.class.getResource("/styles/fonts/Poppins-Bold.ttf").toExternalForm(), 42);
+        Font font = AssetCache.getResourceFont("/styles/fonts/Poppins-Bold.ttf", 42);
         l.setFont(font);
 
         return l;
@@ -170,7 +170,7 @@ public class ResultsList extends TextField {
         // configure font
         l.setPrefSize(300, 47.0);
         l.setTextFill(Color.WHITE);
-        Font font = Font.loadFont(MainApp.class.getResource("/styles/fonts/Poppins-Regular.ttf").toExternalForm(), 42);
+        Font font = AssetCache.getResourceFont("/styles/fonts/Poppins-Regular.ttf", 42);
         l.setFont(font);
 
         return l;
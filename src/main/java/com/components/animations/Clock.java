@@ -2,8 +2,8 @@ package com.components.animations;
 
 import com.MainApp;
 import com.enums.Gamemode;
+import com.util.TickScheduler;
 
-import javafx.animation.AnimationTimer;
 import javafx.scene.control.Label;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Arc;
@@ -12,7 +12,8 @@ import javafx.scene.shape.ArcType;
 /**
  * The Clock component is the timer component used in the Quiz during Game Mode.
  * It features a segment rotating arc with colour changing interpolation as
- * well.
+ * well. The angle is worked out from how much time has passed, so the clock
+ * stays accurate even if frames are dropped.
  */
 public class Clock {
     // javaFX fields to alter
@@ -22,7 +23,9 @@ public class Clock {
     // clock properties
     private float angle;
     private int duration;
-    private MyTimer timer;
+    private TickScheduler.Ticket ticket;
+    private float resumedAngle; // the angle when the clock was last resumed
+    private long resumedAt; // System.nanoTime when the clock was last resumed
 
     // fields for colour interpolation
     private Color startColor = Color.rgb(172, 249, 75);
@@ -41,7 +44,6 @@ public class Clock {
         this.sector = sector;
         this.timerMessage = timerMessage;
         configureArc();
-        timer = new MyTimer(duration);
     }
 
     /**
@@ -51,7 +53,10 @@ public class Clock {
         if (MainApp.getGameState().getGameMode() == Gamemode.PRACTICE)
             return;
 
-        timer.close();
+        if (ticket != null) {
+            doHandle(); // catch up to the time the clock was stopped
+            close();
+        }
     }
 
     /**
@@ -75,9 +80,14 @@ public class Clock {
         if (!MainApp.getGameState().getAwaitingInput())
             return;
 
+        close(); // never run two at once
         duration = MainApp.getSetting().getTimerDuration();
-        timer = new MyTimer(this.duration);
-        timer.start();
+        resumedAngle = angle;
+        resumedAt = System.nanoTime();
+
+        // update once per half degree rotation
+        long durationTick = duration * 1_000_000_000L / 720;
+        ticket = TickScheduler.get().every(resumedAt + durationTick, durationTick, this::doHandle);
     }
 
     /**
@@ -144,53 +154,29 @@ public class Clock {
     }
 
     /**
-     * Timer class for Quiz Clock
+     * stop the updates, if they are running
      */
-    public class MyTimer extends AnimationTimer {
-        private long lastUpdate = 0;
-        private long durationTick;
-
-        /**
-         * configure durationTick to have the correct delay (we update once per half
-         * degree rotation)
-         * 
-         * @param durationSec
-         */
-        public MyTimer(long durationSec) {
-            this.durationTick = durationSec * 1000_000_000 / 720;
-        }
-
-        /**
-         * close timer
-         */
-        public void close() {
-            stop();
-        }
-
-        /**
-         * call doHandle() for every half degree rotation
-         */
-        @Override
-        public void handle(long now) {
-            if (now - lastUpdate >= durationTick) {
-                lastUpdate = now;
-                doHandle();
-            }
+    private void close() {
+        if (ticket != null) {
+            ticket.cancel();
+            ticket = null;
         }
+    }
 
-        /**
-         * action method on every half rotation Increment angle by half a degree and
-         * update the sector accordingly In addition, update colour and label.
-         */
-        private void doHandle() {
-            angle += 0.5f;
-            sector.setLength(angle);
-            updateColor();
-            updateLabel();
-
-            if (angle >= 360.0f) {
-                stop();
-            }
+    /**
+     * action method on every half rotation. Work out the angle from the time passed
+     * since resuming, and update the sector accordingly. In addition, update colour
+     * and label.
+     */
+    private void doHandle() {
+        float elapsed = (System.nanoTime() - resumedAt) * 360.0f / (duration * 1_000_000_000.0f);
+        angle = Math.min(360.0f, resumedAngle + elapsed);
+        sector.setLength(angle);
+        updateColor();
+        updateLabel();
+
+        if (angle >= 360.0f) {
+            close();
         }
     }
 }
\ No newline at end of file
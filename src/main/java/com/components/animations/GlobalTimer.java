@@ -1,79 +1,60 @@
 package com.components.animations;
 
-import javafx.animation.AnimationTimer;
-
 /**
  * GlobalTimer is used to keep track of how long a user has to wait globally
- * before they have to spin the wheel
+ * before they have to spin the wheel. It only remembers when the wait ends, so
+ * nothing needs to tick while the user is waiting
  */
 public class GlobalTimer {
-    private int timeSeconds;
-    private MyTimer timer;
     private int duration;
+    private long deadline; // System.nanoTime at which the wait ends
+    private int stoppedSeconds = -1; // time left when stopped, -1 while running
 
     /**
-     * Construct GlobalTimer
-     * 
+     * Construct GlobalTimer, with no time left to wait
+     *
      * @param duration
      */
     public GlobalTimer(int duration) {
         this.duration = duration;
-        timeSeconds = 0;
-        timer = new MyTimer();
-        timer.start();
+        deadline = System.nanoTime();
     }
 
     /**
-     * Stop timer
+     * Stop timer, keeping the time left
      */
     public void stop() {
-        timer.stop();
+        stoppedSeconds = getDuration();
     }
 
     /**
      * Restart timer
      */
     public void restart() {
-        timeSeconds = duration;
-        timer.start();
+        stoppedSeconds = -1;
+        deadline = System.nanoTime() + duration * 1_000_000_000L;
     }
 
     /**
      * Get current duration of timer
-     * 
-     * @return
+     *
+     * @return the whole seconds left to wait, 0 once the wait is over
      */
     public int getDuration() {
-        return timeSeconds;
+        if (stoppedSeconds >= 0)
+            return stoppedSeconds;
+        long remaining = getRemainingNanos();
+        return (int) ((remaining + 999_999_999) / 1_000_000_000); // round up
     }
 
     /**
-     * Timer class for global timer
+     * Get the exact time left to wait
+     *
+     * @return the nanoseconds left to wait, 0 once the wait is over
      */
-    public class MyTimer extends AnimationTimer {
-        private long lastUpdate = 0;
-        private long durationTick = 1_000_000_000; // every second
-
-        /**
-         * Call doHandle() every second
-         */
-        @Override
-        public void handle(long now) {
-            if (now - lastUpdate >= durationTick) {
-                lastUpdate = now;
-                doHandle();
-            }
-        }
-
-        /**
-         * action function to decrement time in seconds by 1 and stop if reaching 0
-         */
-        private void doHandle() {
-            if (timeSeconds <= 1) {
-                stop();
-            }
-
-            timeSeconds--;
-        }
+    public long getRemainingNanos() {
+        if (stoppedSeconds >= 0)
+            return stoppedSeconds * 1_000_000_000L;
+        return Math.max(0, deadline - System.nanoTime());
     }
 }
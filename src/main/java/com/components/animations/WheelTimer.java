@@ -2,20 +2,21 @@ package com.components.animations;
 
 import com.MainApp;
 import com.controllers.ApplicationController;
+import com.util.TickScheduler;
 
-import javafx.animation.AnimationTimer;
 import javafx.scene.control.Label;
 import javafx.scene.image.ImageView;
 
 /**
  * WheelTimer allows for the label on ProfileScreen and SpinningWheel to reflect
- * the value of the global timer
+ * the value of the global timer. The label is only updated when the seconds
+ * left change
  */
 public class WheelTimer extends ApplicationController {
     private Label timerMessage;
     private ImageView spinButton = null;
     private int timeSeconds;
-    private MyTimer timer;
+    private TickScheduler.Ticket ticket;
 
     /**
      * Create wheel timer
@@ -27,22 +28,33 @@ public class WheelTimer extends ApplicationController {
         this.spinButton = spinButton;
         this.timerMessage = timerMessage;
         timeSeconds = MainApp.getGlobalTimer().getDuration(); // retrieve duration from global timer
-        timer = new MyTimer();
     }
 
     /**
      * start timer
      */
     public void start() {
-        timeSeconds = MainApp.getGlobalTimer().getDuration(); // retrieve duration from global timer
-        timer.start();
+        stop();
+        doHandle();
+        if (timeSeconds <= 0)
+            return;
+
+        // tick each time the seconds left change, in step with the global timer
+        long remaining = MainApp.getGlobalTimer().getRemainingNanos();
+        long untilNextSecond = remaining % 1_000_000_000L;
+        if (untilNextSecond == 0)
+            untilNextSecond = 1_000_000_000L;
+        ticket = TickScheduler.get().every(System.nanoTime() + untilNextSecond, 1_000_000_000L, this::doHandle);
     }
 
     /**
      * stop timer
      */
     public void stop() {
-        timer.stop();
+        if (ticket != null) {
+            ticket.cancel();
+            ticket = null;
+        }
     }
 
     /**
@@ -67,33 +79,15 @@ public class WheelTimer extends ApplicationController {
     }
 
     /**
-     * Timer class for WheelTimer
+     * read the time left from the global timer and update label OR stop if limit
+     * reached
      */
-    public class MyTimer extends AnimationTimer {
-        private long lastUpdate = 0;
-        private long durationTick = 1_000_000_000; // every second
-
-        /**
-         * call doHandle() every second to update the GUI accordingly
-         */
-        @Override
-        public void handle(long now) {
-            if (now - lastUpdate >= durationTick) {
-                lastUpdate = now;
-                doHandle();
-            }
+    private void doHandle() {
+        timeSeconds = MainApp.getGlobalTimer().getDuration();
+        if (timeSeconds <= 0) {
+            stop();
         }
 
-        /**
-         * decreement time every second and update label OR stop if limit reached
-         */
-        private void doHandle() {
-            if (timeSeconds <= 1) {
-                stop();
-            }
-
-            timeSeconds--;
-            updateLabel();
-        }
+        updateLabel();
     }
 }
\ No newline at end of file
@@ -7,13 +7,13 @@ import java.util.List;
 
 import com.MainApp;
 import com.enums.Modals;
+import com.util.AssetCache;
 import com.util.Modal;
 import com.util.Sounds;
 
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Pane;
@@ -23,6 +23,8 @@ import javafx.scene.layout.Pane;
 public class ApplicationController {
     @FXML
     protected Pane anchorPane;
+    // Set by the view cache, which runs start itself once the view is shown
+    private boolean startDeferred = false;
 
     //// Public API (to be used by child classes internally) ////
 
@@ -42,8 +44,8 @@ public class ApplicationController {
         String[] ex = view.getImage().getUrl().split("/");
         ex[ex.length - 1] = s + ".png";
 
-        // Set the image on the frontend
-        view.setImage(new Image(String.join("/", ex)));
+        // Set the image on the frontend, images are only decoded the first time
+        view.setImage(AssetCache.getImage(String.join("/", ex)));
     }
 
     /// Function using generics to find elements of a certain type
@@ -140,6 +142,50 @@ public class ApplicationController {
     protected void start() {
     }
 
+    /**
+     * Whether the view cache may keep this view and show it again, in place of
+     * loading it from scratch. Views which return true must override reset.
+     * 
+     * @return true if this view can be reused
+     */
+    public boolean isReusable() {
+        return false;
+    }
+
+    /**
+     * Put this view back into the state it was loaded in, so it can be shown
+     * again. Only called on reusable views, before start is run again.
+     */
+    public void reset() {
+        // Undo any hover effects left over from when the view was last shown
+        findElms(anchorPane, ImageView.class).forEach(i -> {
+            if (i.getId() != null && i.getId().contains("Button")) {
+                i.setScaleX(1);
+                i.setScaleY(1);
+            }
+        });
+    }
+
+    /**
+     * Don't run start once initialised, used when a view is loaded before it is
+     * shown. Must be called before the view is initialised.
+     */
+    public void deferStart() {
+        this.startDeferred = true;
+    }
+
+    /**
+     * Run start, once the view has been shown.
+     */
+    public void show() {
+        Platform.runLater(new Runnable() {
+            @Override
+            public void run() {
+                start();
+            }
+        });
+    }
+
     /**
      * Initalize a regular stage
      */
@@ -162,11 +208,7 @@ public class ApplicationController {
         });
 
         // run start method after initialisation
-        Platform.runLater(new Runnable() {
-            @Override
-            public void run() {
-                start();
-            }
-        });
+        if (!this.startDeferred)
+            this.show();
     }
 }
\ No newline at end of file
@@ -4,12 +4,15 @@ import java.io.FileNotFoundException;
 
 import com.MainApp;
 import com.controllers.ModalController;
+import com.enums.MatchStrictness;
 import com.util.Modal;
 
 import javafx.fxml.FXML;
+import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
+import javafx.util.StringConverter;
 
 /**
  * This class is the controller for the settings modal.
@@ -38,6 +41,10 @@ public class Setting extends ModalController {
     ImageView resetButton;
     @FXML
     ImageView exitButton;
+    @FXML
+    ChoiceBox<MatchStrictness> strictnessSelect;
+    @FXML
+    ChoiceBox<Integer> toleranceSelect;
 
     //// Private Methods ////
 
@@ -54,6 +61,17 @@ public class Setting extends ModalController {
             System.err.println("Unable to load image for music toggling");
             e.printStackTrace();
         }
+        this.strictnessSelect.setValue(this.settings.getMatchStrictness());
+        this.toleranceSelect.setValue(this.settings.getMatchTolerance());
+        this.toleranceSelect.setDisable(this.settings.getMatchStrictness() != MatchStrictness.TOLERANT);
+    }
+
+    /**
+     * Save the settings after a change, and show them.
+     */
+    private void __save() {
+        this.settings.save();
+        this.__update();
     }
 
     /**
@@ -65,7 +83,7 @@ public class Setting extends ModalController {
      */
     private void __speed_change(double amt) {
         this.settings.setSpeechSpeed(this.settings.getSpeechSpeed() + amt);
-        this.__update();
+        this.__save();
     }
 
     /**
@@ -75,7 +93,7 @@ public class Setting extends ModalController {
      */
     private void __time_change(int amt) {
         this.settings.setTimerDuration(this.settings.getTimerDuration() + amt);
-        this.__update();
+        this.__save();
     }
 
     //// Public Methods ////
@@ -84,17 +102,62 @@ public class Setting extends ModalController {
     public void initializeModal() {
         this.exitButton.addEventHandler(MouseEvent.MOUSE_CLICKED, _event -> Modal.closeModal(true));
         this.settings = MainApp.getSetting();
+
+        // How strictly answers are marked, takes effect from the next topic
+        this.strictnessSelect.getItems().setAll(MatchStrictness.values());
+        this.strictnessSelect.setConverter(new StringConverter<MatchStrictness>() {
+            @Override
+            public String toString(MatchStrictness strictness) {
+                return (strictness == null) ? "" : strictness.getDisplayName();
+            }
+
+            @Override
+            public MatchStrictness fromString(String name) {
+                return null;
+            }
+        });
+        this.toleranceSelect.getItems().clear();
+        for (int tolerance = com.models.Setting.minMatchTolerance;
+                tolerance <= com.models.Setting.maxMatchTolerance; tolerance++)
+            this.toleranceSelect.getItems().add(tolerance);
+        this.toleranceSelect.setConverter(new StringConverter<Integer>() {
+            @Override
+            public String toString(Integer tolerance) {
+                return (tolerance == null) ? "" : tolerance + ((tolerance == 1) ? " typo" : " typos");
+            }
+
+            @Override
+            public Integer fromString(String name) {
+                return null;
+            }
+        });
         this.__update();
 
+        this.strictnessSelect.setOnAction(_event -> {
+            MatchStrictness strictness = this.strictnessSelect.getValue();
+            if (strictness == null || strictness == this.settings.getMatchStrictness())
+                return;
+            this.settings.setMatchStrictness(strictness);
+            this.__save();
+        });
+
+        this.toleranceSelect.setOnAction(_event -> {
+            Integer tolerance = this.toleranceSelect.getValue();
+            if (tolerance == null || tolerance == this.settings.getMatchTolerance())
+                return;
+            this.settings.setMatchTolerance(tolerance);
+            this.__save();
+        });
+
         this.musicToggleButton.addEventHandler(MouseEvent.MOUSE_CLICKED, _event -> {
             this.settings.setMusic(!this.settings.getMusic());
             MainApp.updateMusic();
-            this.__update();
+            this.__save();
         });
 
         this.soundToggleButton.addEventHandler(MouseEvent.MOUSE_CLICKED, _event -> {
             this.settings.setSounds(!this.settings.getSounds());
-            this.__update();
+            this.__save();
         });
 
         this.speedMinusButton.addEventHandler(MouseEvent.MOUSE_CLICKED, _event -> this.__speed_change(-0.25));
@@ -108,7 +171,7 @@ public class Setting extends ModalController {
             this.settings = new com.models.Setting();
             MainApp.setSetting(this.settings);
             MainApp.updateMusic();
-            this.__update();
+            this.__save();
         });
     }
 }
@@ -13,6 +13,7 @@ import com.controllers.fxmlComponents.AchievementType;
 import com.enums.Achievement;
 import com.enums.Views;
 import com.models.User;
+import com.util.AssetCache;
 
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
@@ -135,6 +136,7 @@ public class Achievements extends ApplicationController implements Initializable
                 // the Achievements screen
                 FXMLLoader fxmlLoader = new FXMLLoader();
                 fxmlLoader.setLocation(MainApp.class.getResource("/fxmlComponents/achievementType.fxml"));
+                fxmlLoader.setBuilderFactory(AssetCache.getBuilderFactory());
                 AnchorPane anchorPane = fxmlLoader.load();
                 AchievementType achievementTypeController = fxmlLoader.getController();
                 // use the AchievementType controller to generate an achievement type component using the retrieved information
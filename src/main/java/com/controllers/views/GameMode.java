@@ -133,16 +133,41 @@ public class GameMode extends ApplicationController implements Initializable {
         MainApp.setRoot(Views.TOPIC);
     }
 
+    @Override
+    protected void start() {
+        // The user may have changed since this view was loaded
+        setAvatarImage(rankedAvatar);
+    }
+
     //// Public Methods ////
 
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        // Undo any hover effects, back to how the fxml has them
+        try {
+            setImage("practice-faded", practice);
+            setImage("ranked-faded", ranked);
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+        for (ImageView avatar : List.of(practiceAvatar, rankedAvatar)) {
+            avatar.setEffect(null);
+            avatar.setOpacity(1);
+        }
+    }
+
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         super.initialize();
         this.__intialiseMode(Gamemode.PRACTICE);
         this.__intialiseMode(Gamemode.RANKED);
 
-        setAvatarImage(rankedAvatar);
-
         this.backButton.addEventHandler(MouseEvent.MOUSE_CLICKED, _event -> MainApp.setRoot(Views.MENU));
     }
 }
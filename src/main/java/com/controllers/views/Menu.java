@@ -10,6 +10,7 @@ import com.components.animations.SlideComponentHorizontal;
 import com.controllers.ApplicationController;
 import com.enums.Modals;
 import com.enums.Views;
+import com.util.AssetPreloader;
 import com.util.Modal;
 import com.util.Sounds;
 
@@ -21,6 +22,7 @@ import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.Node;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.image.ImageView;
 
 /**
@@ -48,6 +50,8 @@ public class Menu extends ApplicationController implements Initializable {
     private ImageView helpLabel;
     @FXML
     private ImageView exitMessage;
+    @FXML
+    private ProgressBar loadingBar;
 
     private Animation menuAnimation;
     private ImageView[] animated = new ImageView[4];
@@ -110,6 +114,31 @@ public class Menu extends ApplicationController implements Initializable {
 
     //// Public Methods ////
 
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (this.menuAnimation != null)
+            this.menuAnimation.stop();
+
+        // Put back the buttons which slid away when play was clicked
+        for (ImageView image : this.animated) {
+            if (image != null)
+                image.setTranslateX(0);
+        }
+        this.exitMessage.setTranslateX(0);
+        this.playButton.setTranslateY(0);
+        this.settingsLabel.setVisible(false);
+        this.profileLabel.setVisible(false);
+        this.helpLabel.setVisible(false);
+
+        Sounds.playMusic("menu");
+    }
+
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         // Inital setup & loading of data
@@ -117,6 +146,15 @@ public class Menu extends ApplicationController implements Initializable {
 
         Sounds.playMusic("menu");
 
+        // Show how far through loading the game is, until it is ready
+        AssetPreloader preloader = MainApp.getAssetPreloader();
+        if (preloader == null || preloader.isDone()) {
+            this.loadingBar.setVisible(false);
+        } else {
+            this.loadingBar.progressProperty().bind(preloader.progressProperty());
+            this.loadingBar.visibleProperty().bind(preloader.progressProperty().lessThan(1));
+        }
+
         // Set event handlers
         // exiting
         this.exitGameButton.addEventHandler(MouseEvent.MOUSE_CLICKED, event -> {
@@ -1,6 +1,5 @@
 package com.controllers.views;
 
-import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
 
@@ -9,6 +8,7 @@ import com.controllers.ApplicationController;
 import com.enums.ErrorModal;
 import com.enums.Views;
 import com.models.User;
+import com.util.API;
 import com.util.Modal;
 
 import javafx.fxml.FXML;
@@ -43,20 +43,26 @@ public class NewUser extends ApplicationController implements Initializable {
      * A handler for when an account is created.
      */
     private void __onCreateAccount() {
-        User user;
-        try {
-            user = new User();
-        } catch (IOException e1) {
-            Modal.showGeneralModal(ErrorModal.INTERNET);
-            return;
-        }
         if (nicknameInput.getText().equals("") || (nicknameInput.getText().length() > 10)) {
             Modal.showGeneralModal(ErrorModal.NICKNAME);
             return;
         }
-        try {
-            String res = user.signup(usernameInput.getText(), passwordInput.getText(), nicknameInput.getText());
-            if (res == null) {
+        String username = usernameInput.getText();
+        String password = passwordInput.getText();
+        String nickname = nicknameInput.getText();
+        // Talking to the api can be slow, so keep it off the javafx thread
+        API.runAsync(() -> {
+            User user = new User();
+            String res = user.signup(username, password, nickname);
+            return (res == null) ? user : null;
+        }).whenCompleteAsync((user, e) -> {
+            if (e != null) {
+                Modal.showGeneralModal(ErrorModal.INTERNET);
+                this.passwordInput.clear();
+                this.usernameInput.clear();
+                this.nicknameInput.clear();
+                this.usernameInput.requestFocus();
+            } else if (user != null) {
                 // success
                 MainApp.setUser(user);
                 MainApp.setRoot(Views.PROFILE);
@@ -68,13 +74,7 @@ public class NewUser extends ApplicationController implements Initializable {
                 this.nicknameInput.clear();
                 this.usernameInput.requestFocus();
             }
-        } catch (IOException e) {
-            Modal.showGeneralModal(ErrorModal.INTERNET);
-            this.passwordInput.clear();
-            this.usernameInput.clear();
-            this.nicknameInput.clear();
-            this.usernameInput.requestFocus();
-        }
+        }, API.fxThread);
     }
 
     @Override
@@ -1,8 +1,8 @@
 package com.controllers.views;
 
-import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 import com.MainApp;
 import com.components.animations.WheelTimer;
@@ -11,6 +11,7 @@ import com.enums.ConfirmModal;
 import com.enums.ErrorModal;
 import com.enums.Views;
 import com.models.User;
+import com.util.API;
 import com.util.Modal;
 
 import javafx.fxml.FXML;
@@ -111,26 +112,28 @@ public class Profile extends ApplicationController implements Initializable {
 
         input.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
             if (event.getCode() == KeyCode.ENTER) {
-                if (!this.usernameInput.getText().equals("")) {
-                    try {
-                        this.currentUser.setUsername(usernameInput.getText());
-                    } catch (IOException e) {
-                        Modal.showGeneralModal(ErrorModal.INTERNET);
-                    }
-                }
-                if (!this.nicknameInput.getText().equals("") && !(this.nicknameInput.getText().length() > 10)) {
-                    try {
-                        this.currentUser.setNickname(nicknameInput.getText());
-                    } catch (IOException e) {
-                        Modal.showGeneralModal(ErrorModal.INTERNET);
-                    }
-                } else {
+                String username = this.usernameInput.getText();
+                String nickname = this.nicknameInput.getText();
+                boolean validNickname = !nickname.equals("") && !(nickname.length() > 10);
+                if (!validNickname) {
                     this.__inputEditing(this.nicknameInput);
                     Modal.showGeneralModal(ErrorModal.NICKNAME);
                 }
                 usernameInput.setStyle("-fx-background-color: #DFC49B;");
                 nicknameInput.setStyle("-fx-background-color: #DFC49B;");
-                this.__configureDynamicEntries();
+
+                // Talking to the api can be slow, so it is done in the background
+                CompletableFuture<String> result = username.equals("") ? CompletableFuture.completedFuture(null)
+                        : this.currentUser.setUsernameAsync(username);
+                if (validNickname)
+                    result = result.thenCombine(this.currentUser.setNicknameAsync(nickname), (res, ignored) -> res);
+                result.whenCompleteAsync((res, e) -> {
+                    if (e != null)
+                        Modal.showGeneralModal(ErrorModal.INTERNET);
+                    else if (res != null)
+                        Modal.showGeneralModal(ErrorModal.USERNAME);
+                    this.__configureDynamicEntries();
+                }, API.fxThread);
             }
         });
     }
@@ -7,6 +7,7 @@ import java.io.FileNotFoundException;
 
 import com.models.Game;
 import com.models.Word;
+import com.util.AssetCache;
 import com.util.Modal;
 import com.util.Sounds;
 import com.MainApp;
@@ -330,7 +331,7 @@ public class Quiz extends ApplicationController implements Initializable {
 
         InputField.setDisableInputs(false);
 
-        if (this.game.getWord().isEqualStrict(input)) {
+        if (this.game.getWord().isEqual(input, this.game.getMatcher())) {
             // Correct i.e. MASTERED. Increment score.
             this.game.getWord().setScoreMultiplier(this.timer.getScoreMultiplier());
             Sounds.playSoundEffect("correct");
@@ -402,6 +403,7 @@ public class Quiz extends ApplicationController implements Initializable {
         this.__hearWord(1);
         this.timer.start();
         InputField.configureInputField(this.game.getWord(), this.controller, this.submitButton);
+        AssetCache.preload(Views.RESULTS); // Ready for when the quiz ends
     }
 
     @Override
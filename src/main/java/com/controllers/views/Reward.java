@@ -3,6 +3,7 @@ package com.controllers.views;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.ResourceBundle;
@@ -76,11 +77,12 @@ public class Reward extends ApplicationController implements Initializable {
     }
 
     /**
-     * Unlock a dilligence achievement for the current user.
+     * Check whether a dilligence achievement has been earned by the current user.
+     * @param earned the list to add the achievement to, if it has been earned
      * @param bound the level to unlock
      * @param numGames the number of games this user has played
      */
-    private void __addStudentAchievement(int bound, int numGames) {
+    private void __addStudentAchievement(List<String> earned, int bound, int numGames) {
         if (numGames >= bound) {
             String s;
             try {
@@ -89,20 +91,17 @@ public class Reward extends ApplicationController implements Initializable {
                 System.err.println("String cannot be mapped into an achievement");
                 return;
             }
-            try {
-                this.user.unlockAchievement(s);
-            } catch (IOException e) {
-                Modal.showGeneralModal(ErrorModal.INTERNET);
-            }
+            earned.add(s);
         }
     }
 
     /**
-     * Unlock a highscore achievement for the current user.
+     * Check whether a highscore achievement has been earned by the current user.
+     * @param earned the list to add the achievement to, if it has been earned
      * @param bound the level to unlock
      * @param highscore the score from this game
      */
-    private void __addAchieverAchievement(int bound, int highscore) {
+    private void __addAchieverAchievement(List<String> earned, int bound, int highscore) {
         if (highscore >= bound) {
             String s;
             try {
@@ -111,20 +110,17 @@ public class Reward extends ApplicationController implements Initializable {
                 System.err.println("String cannot be mapped into an achievement");
                 return;
             }
-            try {
-                this.user.unlockAchievement(s);
-            } catch (IOException e) {
-                Modal.showGeneralModal(ErrorModal.INTERNET);
-            }
+            earned.add(s);
         }
     }
 
     /**
-     * Unlock a star achievement for the current user.
+     * Check whether a star achievement has been earned by the current user.
+     * @param earned the list to add the achievement to, if it has been earned
      * @param bound the level to unlock
      * @param stars the stars from this game
      */
-    private void __addPocketAchievement(int bound, int stars) {
+    private void __addPocketAchievement(List<String> earned, int bound, int stars) {
         if (stars >= bound) {
             String s;
             try {
@@ -133,20 +129,17 @@ public class Reward extends ApplicationController implements Initializable {
                 System.err.println("String cannot be mapped into an achievement");
                 return;
             }
-            try {
-                this.user.unlockAchievement(s);
-            } catch (IOException e) {
-                Modal.showGeneralModal(ErrorModal.INTERNET);
-            }
+            earned.add(s);
         }
     }
 
     /**
-     * Unlock a speedy achievement for the current user.
+     * Check whether a speedy achievement has been earned by the current user.
+     * @param earned the list to add the achievement to, if it has been earned
      * @param bound the level to unlock
      * @param duration the duration of this game
      */
-    private void __addSpeedyAchievement(int bound, int duration) {
+    private void __addSpeedyAchievement(List<String> earned, int bound, int duration) {
         if (bound == duration) {
             String s;
             try {
@@ -155,11 +148,7 @@ public class Reward extends ApplicationController implements Initializable {
                 System.err.println("String cannot be mapped into an achievement");
                 return;
             }
-            try {
-                this.user.unlockAchievement(s);
-            } catch (IOException e) {
-                Modal.showGeneralModal(ErrorModal.INTERNET);
-            }
+            earned.add(s);
         }
     }
 
@@ -170,36 +159,10 @@ public class Reward extends ApplicationController implements Initializable {
      */
     private void __setStar(int index, int score) {
         if (index >= this.stars.size()) {
+            boolean practice = MainApp.getGameState().getGameMode() == Gamemode.PRACTICE;
+            int duration = MainApp.getSetting().getTimerDuration();
             try {
-                if (MainApp.getGameState().getGameMode() == Gamemode.PRACTICE) {
-                    this.user.unlockAchievement("EXPLORER_1");
-                    return;
-                }
-                if (score == 100) {
-                    int duration = MainApp.getSetting().getTimerDuration();
-                    this.__addSpeedyAchievement(40, duration);
-                    this.__addSpeedyAchievement(30, duration);
-                    this.__addSpeedyAchievement(15, duration);
-                }
-
-                this.user.unlockAchievement("EXPLORER_2");
-                this.user.addScore(score, this.numStars);
-                int numGamesPlayed = this.user.getNumGamesPlayed();
-                this.__addStudentAchievement(5, numGamesPlayed);
-                this.__addStudentAchievement(10, numGamesPlayed);
-                this.__addStudentAchievement(20, numGamesPlayed);
-                this.__addStudentAchievement(50, numGamesPlayed);
-                this.__addStudentAchievement(100, numGamesPlayed);
-                int highScore = this.user.getHighScore();
-                this.__addAchieverAchievement(75, highScore);
-                this.__addAchieverAchievement(90, highScore);
-                this.__addAchieverAchievement(100, highScore);
-                int totalStars = this.user.getTotalStars();
-                this.__addPocketAchievement(10, totalStars);
-                this.__addPocketAchievement(50, totalStars);
-                this.__addPocketAchievement(100, totalStars);
-                this.__addPocketAchievement(200, totalStars);
-                this.__addPocketAchievement(300, totalStars);
+                this.__saveResults(practice, score, duration);
             } catch (IOException e) {
                 Modal.showGeneralModal(ErrorModal.INTERNET);
             }
@@ -220,6 +183,50 @@ public class Reward extends ApplicationController implements Initializable {
         pause.play();
     }
 
+    /**
+     * Save the score for this game and unlock any achievements the user has earned.
+     * Achievements are checked locally, and only the new ones are sent to the api
+     * in a single batch. The changes are journalled and sent to the api in the
+     * background, so this can be called from the javafx thread.
+     * @param practice whether this game was in practice mode
+     * @param score the users score
+     * @param duration the timer duration the game was played with
+     * @throws IOException if unable to contact the api
+     */
+    private void __saveResults(boolean practice, int score, int duration) throws IOException {
+        List<String> earned = new ArrayList<>();
+        if (practice) {
+            earned.add("EXPLORER_1");
+            this.user.unlockAchievements(earned);
+            return;
+        }
+
+        this.user.addScore(score, this.numStars);
+        earned.add("EXPLORER_2");
+        if (score == 100) {
+            this.__addSpeedyAchievement(earned, 40, duration);
+            this.__addSpeedyAchievement(earned, 30, duration);
+            this.__addSpeedyAchievement(earned, 15, duration);
+        }
+        int numGamesPlayed = this.user.getNumGamesPlayed();
+        this.__addStudentAchievement(earned, 5, numGamesPlayed);
+        this.__addStudentAchievement(earned, 10, numGamesPlayed);
+        this.__addStudentAchievement(earned, 20, numGamesPlayed);
+        this.__addStudentAchievement(earned, 50, numGamesPlayed);
+        this.__addStudentAchievement(earned, 100, numGamesPlayed);
+        int highScore = this.user.getHighScore();
+        this.__addAchieverAchievement(earned, 75, highScore);
+        this.__addAchieverAchievement(earned, 90, highScore);
+        this.__addAchieverAchievement(earned, 100, highScore);
+        int totalStars = this.user.getTotalStars();
+        this.__addPocketAchievement(earned, 10, totalStars);
+        this.__addPocketAchievement(earned, 50, totalStars);
+        this.__addPocketAchievement(earned, 100, totalStars);
+        this.__addPocketAchievement(earned, 200, totalStars);
+        this.__addPocketAchievement(earned, 300, totalStars);
+        this.user.unlockAchievements(earned);
+    }
+
     /**
      * Update the highscore label for this user
      * @param gameScore the score they achieved
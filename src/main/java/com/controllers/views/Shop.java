@@ -15,6 +15,7 @@ import com.enums.Avatar;
 import com.enums.ErrorModal;
 import com.enums.Views;
 import com.models.User;
+import com.util.AssetCache;
 import com.util.Modal;
 
 import javafx.fxml.FXML;
@@ -186,7 +187,7 @@ public class Shop extends ApplicationController implements Initializable {
                 Modal.showGeneralModal(ErrorModal.INTERNET);
             }
             this.__setStars();
-            this.__setChosenAvatar(chosenAvatar);
+            this.__setChosenAvatar(this.chosenAvatar);
         });
 
         int column = 0;
@@ -197,6 +198,7 @@ public class Shop extends ApplicationController implements Initializable {
                 // the Shop screen
                 FXMLLoader fxmlLoader = new FXMLLoader();
                 fxmlLoader.setLocation(MainApp.class.getResource("/fxmlComponents/shopAvatar.fxml"));
+                fxmlLoader.setBuilderFactory(AssetCache.getBuilderFactory());
                 AnchorPane anchorPane = fxmlLoader.load();
                 anchorPane.addEventHandler(MouseEvent.MOUSE_CLICKED,
                         _event -> this.__setChosenAvatar(anchorPane.getChildren().get(1)));
@@ -8,11 +8,14 @@ import com.MainApp;
 import com.controllers.ApplicationController;
 import com.enums.ErrorModal;
 import com.enums.Views;
+import com.models.ProfileStore;
 import com.models.User;
+import com.util.API;
 import com.util.Modal;
 
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
@@ -36,28 +39,53 @@ public class SignIn extends ApplicationController implements Initializable {
     private ImageView createAccount;
     @FXML
     private ImageView incorrectMessage;
+    @FXML
+    private ComboBox<ProfileStore.Entry> profileSelect;
 
     //// Private Methods ////
 
     /**
-     * Attempts to sign in a user with the provided values from the next fields
-     * @return a boolean indicating which is true if the user was signed in, false otherwise
+     * Attempts to sign in a user with the provided values from the text fields.
+     * This blocks on the api, so should be called from a background thread.
+     * @param username the username entered
+     * @param pwd the password entered
+     * @return the signed in user, or null if the username or password is incorrect
      * @throws IOException if unable to contact the API
      */
-    private boolean __signin() throws IOException {
-        String username = usernameInput.getText();
-        String pwd = passwordInput.getText();
-
+    private User __signin(String username, String pwd) throws IOException {
         User user = new User();
         String res = user.login(username, pwd);
+        return (res == null) ? user : null;
+    }
+
+    /**
+     * Fill the profile picker with the profiles saved on this computer, hiding it
+     * if there are none.
+     */
+    private void __refreshProfiles() {
+        this.profileSelect.getSelectionModel().clearSelection();
+        this.profileSelect.getItems().setAll(ProfileStore.get().getProfiles());
+        this.profileSelect.setVisible(!this.profileSelect.getItems().isEmpty());
+    }
 
-        if (res == null) {
-            // success
-            MainApp.setUser(user);
-            return true;
-        } else {
-            return false;
+    /**
+     * Pick a profile saved on this computer. Students still have to enter their
+     * password, so only their username is filled in, and their saved copy is shown
+     * once they have signed in. Picking the guest profile signs out straight away.
+     * @param entry the profile picked
+     */
+    private void __pickProfile(ProfileStore.Entry entry) {
+        if (ProfileStore.guestKey.equals(entry.key)) {
+            User user = MainApp.getUser();
+            if (user.isLoggedIn())
+                user.signout();
+            MainApp.setRoot(Views.PROFILE);
+            return;
         }
+        this.incorrectMessage.setVisible(false);
+        this.usernameInput.setText(entry.username);
+        this.passwordInput.clear();
+        this.passwordInput.requestFocus();
     }
 
     //// Public Methods ////
@@ -66,13 +94,23 @@ public class SignIn extends ApplicationController implements Initializable {
      * Button handler for when the sign in button is clicked.
      */
     public void onSignIn() {
-        try {
-            boolean res = this.__signin();
-
-            if (res == true) {
-                // signed in!!
+        String username = usernameInput.getText();
+        String pwd = passwordInput.getText();
+        API.runAsync(() -> this.__signin(username, pwd)).whenCompleteAsync((res, e) -> {
+            if (e != null) {
+                Modal.showGeneralModal(ErrorModal.INTERNET);
+                this.usernameInput.clear();
+                this.passwordInput.clear();
+                this.usernameInput.requestFocus();
+            } else if (res != null) {
+                // signed in!! a saved copy may be shown, so bring it up to date in the background
                 this.incorrectMessage.setVisible(false);
+                MainApp.setUser(res);
                 MainApp.setRoot(Views.PROFILE);
+                res.syncAsync().whenComplete((synced, error) -> {
+                    if (error != null)
+                        System.err.println("Unable to sync profile, using saved copy: " + error.getCause());
+                });
             } else {
                 // incorrect
                 this.incorrectMessage.setVisible(true);
@@ -80,13 +118,7 @@ public class SignIn extends ApplicationController implements Initializable {
                 this.passwordInput.clear();
                 this.usernameInput.requestFocus();
             }
-
-        } catch (IOException exception) {
-            Modal.showGeneralModal(ErrorModal.INTERNET);
-            this.usernameInput.clear();
-            this.passwordInput.clear();
-            this.usernameInput.requestFocus();
-        }
+        }, API.fxThread);
     }
 
     @Override
@@ -94,6 +126,20 @@ public class SignIn extends ApplicationController implements Initializable {
         this.usernameInput.requestFocus();
     }
 
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.incorrectMessage.setVisible(false);
+        this.usernameInput.clear();
+        this.passwordInput.clear();
+        this.__refreshProfiles();
+    }
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         super.initialize();
@@ -101,6 +147,13 @@ public class SignIn extends ApplicationController implements Initializable {
         this.usernameInput.clear();
         this.passwordInput.clear();
 
+        this.__refreshProfiles();
+        this.profileSelect.setOnAction(e -> {
+            ProfileStore.Entry entry = this.profileSelect.getValue();
+            if (entry != null)
+                this.__pickProfile(entry);
+        });
+
         this.backButton.addEventHandler(MouseEvent.MOUSE_CLICKED, e -> {
             MainApp.setRoot(Views.MENU);
         });
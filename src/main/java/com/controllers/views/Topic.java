@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.ResourceBundle;
 
 import com.models.SpellingTopic;
+import com.util.AssetCache;
 import com.util.SystemIO;
 import com.MainApp;
 import com.controllers.ApplicationController;
@@ -47,6 +48,18 @@ public class Topic extends ApplicationController implements Initializable {
 
     //// Private Methods ////
 
+    /**
+     * Read the topics which can be picked, so topics added or removed since the
+     * screen was last shown are picked up.
+     */
+    private void __loadTopics() {
+        try {
+            this.TOPICS = (ArrayList<SpellingTopic>) SystemIO.getTopics();
+        } catch (IOException e) {
+            System.err.println("Unable to retrieve spelling word topics " + e);
+        }
+    }
+
     private void __initialiseSelectableTopic(ImageView id) {
         // get topic name from button
         String listName = id.getId().replace("Button", "");
@@ -68,17 +81,30 @@ public class Topic extends ApplicationController implements Initializable {
         });
     }
 
+    @Override
+    protected void start() {
+        // Get the quiz images ready while a topic is being picked
+        AssetCache.preload(Views.QUIZ);
+    }
+
     //// Public Methods ////
 
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.__loadTopics();
+    }
+
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         // Inital setup & loading of data
         super.initialize();
-        try {
-            this.TOPICS = (ArrayList<SpellingTopic>) SystemIO.getTopics();
-        } catch (IOException e) {
-            System.err.println("Unable to retrieve spelling word topics " + e);
-        }
+        this.__loadTopics();
 
         // add handlers
         this.__initialiseSelectableTopic(this.babiesButton);
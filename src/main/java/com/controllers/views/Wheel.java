@@ -2,6 +2,8 @@ package com.controllers.views;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
 
 import com.MainApp;
@@ -56,11 +58,12 @@ public class Wheel extends ApplicationController implements Initializable {
     //// Private (helper) Methods ////
 
     /**
-     * Attempts to unlock a star achievement for the current user
+     * Check whether a star achievement has been earned by the current user
+     * @param earned the list to add the achievement to, if it has been earned
      * @param bound the level to compare against
      * @param stars the stars the user has earned
      */
-    private void __addPocketAchievement(int bound, int stars) {
+    private void __addPocketAchievement(List<String> earned, int bound, int stars) {
         if (stars >= bound) {
             String s;
             try {
@@ -69,11 +72,7 @@ public class Wheel extends ApplicationController implements Initializable {
                 System.err.println("String cannot be mapped into an achievement");
                 return;
             }
-            try {
-                this.currentUser.unlockAchievement(s);
-            } catch (IOException e) {
-                Modal.showGeneralModal(ErrorModal.INTERNET);
-            }
+            earned.add(s);
         }
     }
 
@@ -106,12 +105,14 @@ public class Wheel extends ApplicationController implements Initializable {
         try {
             this.currentUser.addScore(-1, this.reward);
             int totalStars = this.currentUser.getTotalStars();
-            this.__addPocketAchievement(10, totalStars);
-            this.__addPocketAchievement(50, totalStars);
-            this.__addPocketAchievement(100, totalStars);
-            this.__addPocketAchievement(200, totalStars);
-            this.__addPocketAchievement(300, totalStars);
-        } catch (IOException exception) {
+            List<String> earned = new ArrayList<>();
+            this.__addPocketAchievement(earned, 10, totalStars);
+            this.__addPocketAchievement(earned, 50, totalStars);
+            this.__addPocketAchievement(earned, 100, totalStars);
+            this.__addPocketAchievement(earned, 200, totalStars);
+            this.__addPocketAchievement(earned, 300, totalStars);
+            this.currentUser.unlockAchievements(earned);
+        } catch (IOException e) {
             System.err.println("Unable to add stars " + this.reward);
             Modal.showGeneralModal(ErrorModal.INTERNET);
         }
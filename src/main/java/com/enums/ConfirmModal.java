@@ -1,8 +1,7 @@
 package com.enums;
 
-import java.io.IOException;
-
 import com.MainApp;
+import com.util.API;
 import com.util.Modal;
 import com.util.Sounds;
 import com.models.GeneralModal;
@@ -53,24 +52,22 @@ public enum ConfirmModal implements GeneralModal {
             MainApp.setRoot(Views.MENU);
             break;
         case RESET:
-            try {
-                String res = MainApp.getUser().resetAccount();
-                if (res == null) {
+            MainApp.getUser().resetAccountAsync().whenCompleteAsync((res, e) -> {
+                if (e != null) {
+                    Modal.showGeneralModal(ErrorModal.INTERNET);
+                } else if (res == null) {
                     MainApp.setRoot(Views.PROFILE);
                 }
-            } catch (IOException e) {
-                Modal.showGeneralModal(ErrorModal.INTERNET);
-            }
+            }, API.fxThread);
             break;
         case DELETE:
-            try {
-                String res = MainApp.getUser().deleteAccount();
-                if (res == null) {
+            MainApp.getUser().deleteAccountAsync().whenCompleteAsync((res, e) -> {
+                if (e != null) {
+                    Modal.showGeneralModal(ErrorModal.INTERNET);
+                } else if (res == null) {
                     MainApp.setRoot(Views.MENU);
                 }
-            } catch (IOException e) {
-                Modal.showGeneralModal(ErrorModal.INTERNET);
-            }
+            }, API.fxThread);
             break;
         default:
             System.err.println("ERROR: Confirmation type not implemented.");
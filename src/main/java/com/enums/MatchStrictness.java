@@ -0,0 +1,26 @@
+package com.enums;
+
+/**
+ * How strictly an answer is marked against the spelling of a word.
+ */
+public enum MatchStrictness {
+    // Every character must match, including macrons
+    EXACT("Exact"),
+    // A vowel typed without its macron, or with a different accent, still matches
+    MACRON_INSENSITIVE("Ignore macrons"),
+    // Ignores macrons, and allows a few typing mistakes
+    TOLERANT("Allow typos");
+
+    private final String displayName;
+
+    MatchStrictness(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * @return a name to show for this strictness
+     */
+    public String getDisplayName() {
+        return this.displayName;
+    }
+}
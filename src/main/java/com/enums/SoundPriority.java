@@ -0,0 +1,9 @@
+package com.enums;
+
+/**
+ * How important a sound effect is. When too many sounds are playing, less
+ * important sounds are cut off or dropped to make room for more important ones.
+ */
+public enum SoundPriority {
+    LOW, NORMAL, HIGH,
+}
@@ -0,0 +1,14 @@
+package com.models.APIModels;
+
+/**
+ * One of many classes, exclusively used by gson to parse from a string into a
+ * java class for use internally. This one represents the costume catalogue as
+ * it is saved to disk, along with the validators needed to check whether it is
+ * still up to date with the api.
+ */
+public class JSONCostumeSnapshot extends JSONCostumes {
+    public int version;
+    public String etag;
+    public String lastModified;
+    public long fetchedAt; // Milliseconds since the epoch
+}
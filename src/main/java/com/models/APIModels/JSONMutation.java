@@ -0,0 +1,18 @@
+package com.models.APIModels;
+
+/**
+ * One of many classes, exclusively used by gson to parse from a string into a
+ * java class for use internally. This one represents a single change to a user
+ * which is recorded in the journal, until it has been sent to the api.
+ */
+public class JSONMutation {
+    public long seq; // Position in the journal, changes are sent in this order
+    public MutationType type;
+    public String token; // The account the change was made on
+    public Integer usr_id;
+    public String name; // Internal name of the achievement, costume or avatar
+    public Integer score;
+    public Integer num_stars;
+    public Long after; // A change which must be accepted before this one is sent
+    public Integer expected_scores; // The number of scores the api has before this one
+}
@@ -0,0 +1,9 @@
+package com.models.APIModels;
+
+/**
+ * Used internally to define the kinds of change to a user which are recorded in
+ * the journal, and later sent to the api.
+ */
+public enum MutationType {
+    Score, Achievement, Costume, Avatar;
+}
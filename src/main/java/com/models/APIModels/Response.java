@@ -7,14 +7,16 @@ public class Response {
     private String body;
     private String path;
     private ResponseStatus status;
+    private int statusCode;
 
-    public Response(String data, ResponseStatus status, String path) throws IllegalArgumentException {
+    public Response(String data, ResponseStatus status, int statusCode, String path) throws IllegalArgumentException {
         if (data == null)
             throw new IllegalArgumentException("Data may not be null");
         if (path == null)
             throw new IllegalArgumentException("Path may not be null");
         this.body = data;
         this.status = status;
+        this.statusCode = statusCode;
         this.path = path;
     }
 
@@ -49,4 +51,22 @@ public class Response {
     public ResponseStatus getStatus() {
         return this.status;
     }
+
+    /**
+     * @return the http status code of the response, i.e. 404
+     */
+    public int getStatusCode() {
+        return this.statusCode;
+    }
+
+    /**
+     * Check whether the api refused the request itself, in which case sending it
+     * again won't help. Server errors, timeouts and rate limiting are temporary,
+     * so aren't counted.
+     * 
+     * @return true if the response is a client error, other than 408 or 429
+     */
+    public boolean isRejected() {
+        return 400 <= this.statusCode && this.statusCode <= 499 && this.statusCode != 408 && this.statusCode != 429;
+    }
 }
\ No newline at end of file
@@ -3,8 +3,11 @@ package com.models;
 import java.io.IOException;
 import java.util.List;
 
+import com.MainApp;
 import com.enums.Gamemode;
+import com.enums.Language;
 import com.enums.Status;
+import com.util.AnswerMatcher;
 import com.util.SystemIO;
 
 import javafx.scene.Node;
@@ -19,6 +22,7 @@ public class Game {
     private SpellingTopic topic;
     private int wordIndex = 0;
     private boolean awaitingInput = true;
+    private AnswerMatcher matcher = AnswerMatcher.EXACT;
     public Node inputField;
 
     //// Public Methods /////
@@ -76,6 +80,11 @@ public class Game {
     public void setTopic(SpellingTopic topic) throws IOException {
         this.topic = topic;
         this.words = SystemIO.getWords(5, topic.getPath());
+        // The words are normalised as they are loaded, so marking them is cheap
+        Setting setting = MainApp.getSetting();
+        this.matcher = new AnswerMatcher(setting.getMatchStrictness(), setting.getMatchTolerance());
+        // Begin rendering the words now, so they are ready when the quiz starts
+        MainApp.getTTS().preload(this.words, Language.MAORI);
     }
 
     /**
@@ -95,6 +104,15 @@ public class Game {
         return this.words;
     }
 
+    /**
+     * Get how strictly answers are marked in this game, fixed when the topic is
+     * set.
+     * @return the matcher to mark answers with
+     */
+    public AnswerMatcher getMatcher() {
+        return this.matcher;
+    }
+
     /**
      * Get the current gamemode for the quiz.
      * @return
@@ -0,0 +1,305 @@
+package com.models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * A local store of every profile which has been used on this computer, so
+ * students sharing a computer can switch between their profiles instantly. An
+ * index of the profiles is read up front, while the saved data of each profile
+ * is only read when it is first needed, and then kept in memory.
+ */
+public class ProfileStore {
+    //// Constants ////
+    public static final String guestKey = "guest";
+    private static final String storePath = "./.user/profiles";
+    private static final String indexName = "index.json";
+    private static final int indexVersion = 1;
+    private static ProfileStore instance;
+
+    //// Properties ////
+    private final Path dir;
+    private final Gson gson = new Gson();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final HashMap<String, SavedUser> snapshots = new HashMap<>();
+    private String active;
+    // Held while writing to the disk, so a write can't bring back a profile which
+    // was removed while it was in progress. Always taken before the store's lock.
+    private final Object fileLock = new Object();
+
+    /**
+     * A summary of a saved profile, kept in the index so that profiles can be
+     * listed without reading all of them.
+     */
+    public static class Entry {
+        public String key;
+        public String username;
+        public String nickname;
+        public boolean loggedIn;
+        public long lastUsed; // Milliseconds since the epoch
+
+        /**
+         * @return a name to show for this profile
+         */
+        public String getDisplayName() {
+            if (guestKey.equals(this.key))
+                return "Guest";
+            return (this.nickname == null || this.nickname.isEmpty()) ? this.username
+                    : this.nickname + " (" + this.username + ")";
+        }
+
+        @Override
+        public String toString() {
+            return this.getDisplayName();
+        }
+    }
+
+    /**
+     * The index file, exclusively used by gson.
+     */
+    private static class Index {
+        private int version;
+        private String active;
+        private List<Entry> profiles;
+    }
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Write a file in full and sync it before moving it into place, so a crash
+     * can never leave it partially written.
+     *
+     * @param target  the file to write
+     * @param content the content of the file
+     * @throws IOException if the file can't be written
+     */
+    private static void __writeAtomic(Path target, String content) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "profile", ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining())
+                    out.write(buffer);
+                out.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * @return the path a profile is saved to
+     */
+    private Path __profilePath(String key) {
+        return this.dir.resolve(key + ".json");
+    }
+
+    /**
+     * @return the index, as it should currently be written. Must be called while
+     *         holding the lock.
+     */
+    private String __indexJson() {
+        Index index = new Index();
+        index.version = indexVersion;
+        index.active = this.active;
+        index.profiles = new ArrayList<>(this.entries.values());
+        return this.gson.toJson(index);
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Open a profile store, reading its index.
+     *
+     * @param dir the directory the profiles are kept in
+     */
+    public ProfileStore(Path dir) {
+        this.dir = dir;
+        Path indexPath = dir.resolve(indexName);
+        if (!Files.isRegularFile(indexPath))
+            return;
+        try {
+            String json = new String(Files.readAllBytes(indexPath), StandardCharsets.UTF_8);
+            Index index = this.gson.fromJson(json, Index.class);
+            if (index == null || index.profiles == null)
+                return;
+            for (Entry entry : index.profiles) {
+                if (entry.key != null)
+                    this.entries.put(entry.key, entry);
+            }
+            this.active = index.active;
+        } catch (IOException | JsonParseException e) {
+            System.err.println("Unable to read profile index: " + e);
+        }
+    }
+
+    /**
+     * Get the profile store used by the application.
+     *
+     * @return the profile store
+     */
+    public static synchronized ProfileStore get() {
+        if (instance == null)
+            instance = new ProfileStore(Paths.get(storePath));
+        return instance;
+    }
+
+    /**
+     * Use a different profile store for the application, i.e. one in a temporary
+     * directory, so tests never touch the profiles saved on this computer.
+     *
+     * @param store the profile store to use
+     */
+    public static synchronized void use(ProfileStore store) {
+        instance = store;
+    }
+
+    /**
+     * @return the directory the profiles are kept in
+     */
+    public Path getDirectory() {
+        return this.dir;
+    }
+
+    /**
+     * Get the key a logged in user's profile is stored under.
+     *
+     * @param id the api id of the user
+     * @return the key
+     */
+    public static String keyFor(int id) {
+        return "student-" + id;
+    }
+
+    /**
+     * @return true if there are no saved profiles
+     */
+    public synchronized boolean isEmpty() {
+        return this.entries.isEmpty();
+    }
+
+    /**
+     * @return every saved profile, most recently used first
+     */
+    public synchronized List<Entry> getProfiles() {
+        List<Entry> profiles = new ArrayList<>(this.entries.values());
+        profiles.sort(Comparator.comparingLong((Entry e) -> e.lastUsed).reversed());
+        return profiles;
+    }
+
+    /**
+     * @return the key of the profile which was last in use, or null if there is
+     *         none
+     */
+    public synchronized String getActive() {
+        return this.active;
+    }
+
+    /**
+     * Get the saved data of a profile, reading it from the disk the first time.
+     *
+     * @param key the profile to load
+     * @return the saved data, or null if the profile doesn't exist or can't be read
+     */
+    public synchronized SavedUser load(String key) {
+        if (key == null)
+            return null;
+        SavedUser saved = this.snapshots.get(key);
+        if (saved != null)
+            return saved;
+
+        Path path = this.__profilePath(key);
+        if (!Files.isRegularFile(path))
+            return null;
+        try {
+            String json = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            saved = this.gson.fromJson(json, SavedUser.class);
+        } catch (IOException | JsonParseException e) {
+            System.err.println("Unable to read profile " + key + ": " + e);
+            return null;
+        }
+        if (saved != null)
+            this.snapshots.put(key, saved);
+        return saved;
+    }
+
+    /**
+     * Update the saved data of a profile in memory, and make it the active
+     * profile. Call write afterwards to save it to the disk.
+     *
+     * @param key   the profile to update
+     * @param saved the data to save
+     */
+    public synchronized void put(String key, SavedUser saved) {
+        Entry entry = this.entries.computeIfAbsent(key, k -> new Entry());
+        entry.key = key;
+        entry.username = saved.username;
+        entry.nickname = saved.nickname;
+        entry.loggedIn = saved.token != null;
+        entry.lastUsed = System.currentTimeMillis();
+        this.snapshots.put(key, saved);
+        this.active = key;
+    }
+
+    /**
+     * Write a profile, and the index, to the disk. This is safe to call from a
+     * background thread. A profile which has been removed is not written.
+     *
+     * @param key the profile to write
+     * @throws IOException if the profile can't be written
+     */
+    public void write(String key) throws IOException {
+        synchronized (this.fileLock) {
+            String profile;
+            String index;
+            synchronized (this) {
+                SavedUser saved = this.snapshots.get(key);
+                profile = (saved != null && this.entries.containsKey(key)) ? this.gson.toJson(saved) : null;
+                index = this.__indexJson();
+            }
+            if (profile != null)
+                __writeAtomic(this.__profilePath(key), profile);
+            __writeAtomic(this.dir.resolve(indexName), index);
+        }
+    }
+
+    /**
+     * Forget a profile, i.e. once the account has been deleted. The profile is
+     * removed from the disk straight away.
+     *
+     * @param key the profile to remove
+     * @throws IOException if the profile can't be removed
+     */
+    public void remove(String key) throws IOException {
+        synchronized (this.fileLock) {
+            String index;
+            synchronized (this) {
+                this.entries.remove(key);
+                this.snapshots.remove(key);
+                if (key.equals(this.active))
+                    this.active = null;
+                index = this.__indexJson();
+            }
+            Files.deleteIfExists(this.__profilePath(key));
+            __writeAtomic(this.dir.resolve(indexName), index);
+        }
+    }
+}
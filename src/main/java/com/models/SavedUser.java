@@ -0,0 +1,27 @@
+package com.models;
+
+import java.util.List;
+
+/**
+ * The form a user is saved to disk in, exclusively used by gson. Everything is
+ * saved, including for a logged in user, so their profile can be shown before
+ * the api has answered. Saves before version 2 only kept the token of a logged
+ * in user.
+ */
+public class SavedUser {
+    // Increased whenever the saved form changes in a way older versions can't read
+    public static final int currentVersion = 2;
+
+    public int version;
+    public String token;
+    public Integer id;
+    public String username;
+    public String nickname;
+    public String selectedAvatar;
+    public List<String> unlockedAvatars;
+    public Integer highScore;
+    public Integer totalStars;
+    public Integer numGamesPlayed;
+    public List<String> unlockedAchievements;
+    public int scoreCursor;
+}
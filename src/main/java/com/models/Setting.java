@@ -1,15 +1,36 @@
 package com.models;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import com.enums.MatchStrictness;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.util.PersistenceService;
+
 /**
  * Settings for the GUI application which can be altered in Game Mode. Allows
- * settings for speed speed, enabling of music, enabling of sound effects and
- * setting timer duration
+ * settings for speed speed, enabling of music, enabling of sound effects,
+ * setting timer duration and how strictly answers are marked. Settings are
+ * saved on this computer, so they are kept between runs.
  */
 public class Setting {
+    private static final String savePath = "./.user/settings.json";
+    // The typing mistakes which may be allowed when marking tolerantly, as offered
+    // in the settings
+    public static final int minMatchTolerance = 1;
+    public static final int maxMatchTolerance = 3;
+
     private boolean hasMusic = true;
     private boolean hasSound = true;
     private Double speechSpeed = 1.0;
     private int timerDuration = 30;
+    private MatchStrictness matchStrictness = MatchStrictness.EXACT;
+    private int matchTolerance = 1;
 
     /**
      * @return whether music is enabled
@@ -93,4 +114,112 @@ public class Setting {
         this.timerDuration = val;
         return true;
     }
+
+    /**
+     * @return how strictly answers are marked
+     */
+    public MatchStrictness getMatchStrictness() {
+        return this.matchStrictness;
+    }
+
+    /**
+     * Set how strictly answers are marked, from the next topic on
+     * 
+     * @param strictness
+     */
+    public void setMatchStrictness(MatchStrictness strictness) {
+        this.matchStrictness = strictness;
+    }
+
+    /**
+     * @return the most typing mistakes allowed when marking tolerantly
+     */
+    public int getMatchTolerance() {
+        return this.matchTolerance;
+    }
+
+    /**
+     * Set the most typing mistakes allowed when marking tolerantly
+     * 
+     * @param val
+     * @return whether tolerance successfully set
+     */
+    public Boolean setMatchTolerance(int val) {
+        if (val < minMatchTolerance || val > maxMatchTolerance)
+            return false;
+
+        this.matchTolerance = val;
+        return true;
+    }
+
+    /**
+     * Load the settings saved on this computer, or the defaults if there aren't
+     * any. Settings which are missing or out of range are left at their defaults,
+     * except the match tolerance, which is clamped to the range offered.
+     * 
+     * @return the settings
+     */
+    public static Setting load() {
+        return load(Paths.get(savePath));
+    }
+
+    /**
+     * Load settings saved to a file, as load does.
+     * 
+     * @param path the file the settings were saved to
+     * @return the settings
+     */
+    public static Setting load(Path path) {
+        if (!Files.isRegularFile(path))
+            return new Setting();
+        Setting saved;
+        try {
+            saved = new Gson().fromJson(new String(Files.readAllBytes(path), StandardCharsets.UTF_8), Setting.class);
+        } catch (IOException | JsonParseException e) {
+            System.err.println("Unable to load settings, using defaults: " + e);
+            return new Setting();
+        }
+        if (saved == null)
+            return new Setting();
+
+        Setting setting = new Setting();
+        setting.setMusic(saved.hasMusic);
+        setting.setSounds(saved.hasSound);
+        if (saved.speechSpeed != null)
+            setting.setSpeechSpeed(saved.speechSpeed);
+        setting.setTimerDuration(saved.timerDuration);
+        if (saved.matchStrictness != null)
+            setting.setMatchStrictness(saved.matchStrictness);
+        setting.setMatchTolerance(
+                Integer.max(minMatchTolerance, Integer.min(maxMatchTolerance, saved.matchTolerance)));
+        return setting;
+    }
+
+    /**
+     * Save these settings in the background, shortly afterwards, so many changes
+     * in a row only cause one write.
+     */
+    public void save() {
+        this.save(Paths.get(savePath));
+    }
+
+    /**
+     * Save these settings to a file in the background, as save does.
+     * 
+     * @param target the file to save the settings to
+     */
+    public void save(Path target) {
+        String json = new Gson().toJson(this);
+        Path path = target.toAbsolutePath();
+        PersistenceService.get().schedule("settings:" + path, () -> {
+            Files.createDirectories(path.getParent());
+            Path tmp = Files.createTempFile(path.getParent(), "settings", ".tmp");
+            try {
+                Files.write(tmp, json.getBytes(StandardCharsets.UTF_8));
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        });
+    }
 }
@@ -1,43 +1,57 @@
 package com.models;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 import com.MainApp;
 import com.enums.Achievement;
 import com.enums.Avatar;
-import com.enums.ErrorModal;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.models.APIModels.JSONAchievement;
 import com.models.APIModels.JSONCostume;
+import com.models.APIModels.JSONMutation;
 import com.models.APIModels.JSONScore;
 import com.models.APIModels.JSONScores;
 import com.models.APIModels.JSONStudent;
+import com.models.APIModels.MutationType;
 import com.models.APIModels.RequestMethod;
 import com.models.APIModels.Response;
 import com.models.APIModels.ResponseStatus;
 import com.util.API;
-import com.util.Modal;
+import com.util.MutationJournal;
+import com.util.PersistenceService;
 import com.util.Sounds;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 
 /**
  * This class handles the storing and retreiving of the current user. It has
- * interactions with the api for saving and retriving data. It also serializes
- * data onto the disk, which allows persistent logins and guest accounts to
- * function correctly.
+ * interactions with the api for saving and retriving data. It also saves a
+ * copy of each user to the profile store, which allows persistent logins,
+ * guest accounts and switching between students to function correctly.
  */
 public class User implements Serializable {
-    protected final String guestSavePath = "./.user/guest.data";
-    protected final String userSavePath = "./.user/token.data";
+    // Files saved by older versions alongside the profile store, which are
+    // migrated into it
+    protected final String guestSavePath = __besideStore("guest.json");
+    protected final String userSavePath = __besideStore("token.json");
+    protected final String legacyGuestSavePath = __besideStore("guest.data");
+    protected final String legacyUserSavePath = __besideStore("token.data");
+    // Fixed so that legacy guest accounts can still be read as this class changes
+    private static final long serialVersionUID = -2708202105953032347L;
 
     //// Properties ////
     private String JWTToken;
@@ -50,33 +64,210 @@ public class User implements Serializable {
     private Integer totalStars;
     private Integer numGamesPlayed;
     private List<String> unlockedAchievements;
+    private int scoreCursor; // The number of scores from the api already counted in the stats
+
+    /**
+     * A users data as the api has it. It is fetched off the javafx thread, and
+     * then applied to the user on it.
+     */
+    private static class RemoteUser {
+        private JSONStudent student;
+        private JSONScores scores;
+    }
+
+    /**
+     * Applies a users data from the api to this user.
+     */
+    private interface Loader {
+        void load(RemoteUser remote) throws IOException;
+    }
 
     //// Private (Helper) Methods ////
 
     /**
-     * Save the internal state to the disk. In the event of a logged in user, saves
-     * the jwt. For a guest user saves the raw data as a file.
+     * @return the path of a file in the directory holding the profile store
+     */
+    private static String __besideStore(String name) {
+        return ProfileStore.get().getDirectory().resolveSibling(name).toString();
+    }
+
+    /**
+     * Save the internal state to the profile store, and make this the active
+     * profile. All of the users data is saved, so the profile can be shown again
+     * without waiting for the api. The write to the disk happens in the background
+     * shortly afterwards, so many changes in a row only cause one write.
+     */
+    private void __saveData() {
+        ProfileStore store = ProfileStore.get();
+        String key = this.__key();
+        store.put(key, this.__snapshot());
+        PersistenceService.get().schedule("profile:" + key, () -> store.write(key));
+    }
+
+    /**
+     * @return the key this user is saved under in the profile store
+     */
+    private String __key() {
+        return (this.JWTToken != null && this.id != null) ? ProfileStore.keyFor(this.id) : ProfileStore.guestKey;
+    }
+
+    /**
+     * Capture the data which needs to be saved for this user.
      * 
-     * @throws IOException in the event we are unable to save the disk for some
-     *                     reason.
+     * @return a copy of the data to save
      */
-    private void __saveData() throws IOException {
-        // Remove any existing save files
-        new File(this.guestSavePath).delete();
-        new File(this.userSavePath).delete();
+    private SavedUser __snapshot() {
+        SavedUser saved = new SavedUser();
+        saved.version = SavedUser.currentVersion;
+        saved.token = this.JWTToken;
+        saved.id = this.id;
+        saved.username = this.username;
+        saved.nickname = this.nickname;
+        saved.selectedAvatar = this.selectedAvatar.toString();
+        saved.unlockedAvatars = new ArrayList<>();
+        for (Avatar avatar : this.unlockedAvatars)
+            saved.unlockedAvatars.add(avatar.toString());
+        saved.highScore = this.highScore;
+        saved.totalStars = this.totalStars;
+        saved.numGamesPlayed = this.numGamesPlayed;
+        saved.unlockedAchievements = new ArrayList<>(this.unlockedAchievements);
+        saved.scoreCursor = this.scoreCursor;
+        return saved;
+    }
 
-        // Serialize new file
-        if (this.JWTToken != null) {
-            FileOutputStream f_out = new FileOutputStream(this.userSavePath);
-            ObjectOutputStream obj_out = new ObjectOutputStream(f_out);
-            obj_out.writeObject(this.JWTToken);
-            obj_out.close();
+    /**
+     * Fill in this user from a save.
+     * 
+     * @param saved the save to restore
+     */
+    private void __restore(SavedUser saved) {
+        this.JWTToken = saved.token;
+        this.id = saved.id;
+        this.username = saved.username;
+        this.nickname = (saved.nickname != null) ? saved.nickname : "";
+        this.selectedAvatar = (saved.selectedAvatar != null) ? Avatar.fromString(saved.selectedAvatar)
+                : Avatar.DEFAULT;
+        this.unlockedAvatars = new HashSet<>();
+        this.unlockedAvatars.add(Avatar.DEFAULT);
+        if (saved.unlockedAvatars != null) {
+            for (String avatar : saved.unlockedAvatars)
+                this.unlockedAvatars.add(Avatar.fromString(avatar));
+        }
+        this.highScore = (saved.highScore != null) ? saved.highScore : 0;
+        this.totalStars = (saved.totalStars != null) ? saved.totalStars : 0;
+        this.numGamesPlayed = (saved.numGamesPlayed != null) ? saved.numGamesPlayed : 0;
+        this.unlockedAchievements = (saved.unlockedAchievements != null)
+                ? new ArrayList<>(saved.unlockedAchievements)
+                : new ArrayList<>();
+        this.scoreCursor = saved.scoreCursor;
+    }
+
+    /**
+     * Pick up where a restored logged in user left off. Saves from older versions
+     * only kept the token, so those users are loaded from the api, otherwise no
+     * request is made.
+     * 
+     * @throws IOException if the user had to be loaded, and the api couldn't be
+     *                     contacted
+     */
+    private void __resume() throws IOException {
+        MutationJournal journal = MutationJournal.get();
+        if (this.id == null) {
+            this.__loadData();
         } else {
-            FileOutputStream f_out = new FileOutputStream(this.guestSavePath);
-            ObjectOutputStream obj_out = new ObjectOutputStream(f_out);
-            obj_out.writeObject(this);
-            obj_out.close();
+            journal.setToken(this.id, this.JWTToken);
+            // Changes are applied before being saved, this only catches any which were
+            // recorded just before the application was closed
+            for (JSONMutation m : journal.getPending(this.id)) {
+                if (m.type != MutationType.Score)
+                    this.__apply(m);
+            }
         }
+        // Follow any changes left over from last time
+        for (JSONMutation m : journal.getPending(this.id))
+            this.__track(m, journal.getResult(m.seq));
+    }
+
+    /**
+     * Switch to the guest profile on this computer, or a fresh guest if there
+     * isn't one.
+     */
+    private void __switchToGuest() {
+        SavedUser guest = ProfileStore.get().load(ProfileStore.guestKey);
+        if (guest == null) {
+            this.__reset();
+            return;
+        }
+        this.__restore(guest);
+        this.__saveData();
+    }
+
+    /**
+     * Read the users save written by an older version, preferring a logged in user
+     * over a guest.
+     * 
+     * @return the save, or null if there isn't a readable one
+     * @throws IOException if a legacy save could not be read
+     */
+    private SavedUser __readSave() throws IOException {
+        for (String path : new String[] { this.userSavePath, this.guestSavePath }) {
+            if (!new File(path).isFile())
+                continue;
+            try {
+                String json = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+                SavedUser saved = new Gson().fromJson(json, SavedUser.class);
+                if (saved == null)
+                    continue;
+                if (saved.version > SavedUser.currentVersion)
+                    System.err.println("User was saved by a newer version, some data may be lost");
+                return saved;
+            } catch (JsonParseException e) {
+                System.err.println("Unable to read user save " + path + ": " + e);
+            }
+        }
+        return this.__readLegacySave();
+    }
+
+    /**
+     * Read a save written by an older version, which used java serialization.
+     * 
+     * @return the save, or null if there isn't a readable one
+     * @throws IOException if the save could not be read
+     */
+    private SavedUser __readLegacySave() throws IOException {
+        for (String path : new String[] { this.legacyUserSavePath, this.legacyGuestSavePath }) {
+            if (!new File(path).isFile())
+                continue;
+            Object obj;
+            try (ObjectInputStream obj_in = new ObjectInputStream(new FileInputStream(path))) {
+                obj = obj_in.readObject();
+            } catch (ClassNotFoundException e) {
+                e.printStackTrace();
+                continue;
+            }
+
+            SavedUser saved = new SavedUser();
+            saved.version = 0;
+            if (obj instanceof String) {
+                saved.token = (String) obj;
+                return saved;
+            } else if (obj instanceof User) {
+                User user = (User) obj;
+                saved.token = user.JWTToken;
+                saved.username = user.username;
+                saved.nickname = user.nickname;
+                saved.selectedAvatar = user.selectedAvatar.toString();
+                saved.unlockedAvatars = new ArrayList<>();
+                for (Avatar avatar : user.unlockedAvatars)
+                    saved.unlockedAvatars.add(avatar.toString());
+                saved.highScore = user.highScore;
+                saved.totalStars = user.totalStars;
+                saved.numGamesPlayed = user.numGamesPlayed;
+                saved.unlockedAchievements = user.unlockedAchievements;
+                return saved;
+            }
+        }
+        return null;
     }
 
     /**
@@ -92,29 +283,189 @@ public class User implements Serializable {
                 add(Avatar.DEFAULT);
             }
         };
-        this.highScore = 0;
-        this.totalStars = 0;
-        this.numGamesPlayed = 0;
+        this.__resetStats();
         this.nickname = "";
         this.unlockedAchievements = new ArrayList<String>();
-        try {
-            this.__saveData();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        this.__saveData();
     }
 
     /**
-     * After user has logged in, or been created, this method loads their data from
-     * the API.
+     * After user has logged in, or been created, this method loads all of their
+     * data from the API, recounting their stats from scratch.
      * 
      * @throws IOException if unable to contact the api
      */
     private void __loadData() throws IOException {
-        // Load response and parse json
-        Response res = API.makeRequest(RequestMethod.Get, "/student", null, this.JWTToken);
-        JSONStudent student = new Gson().fromJson("{" + res.loadJsonData() + "}", JSONStudent.class);
+        this.__load(__fetch(this.JWTToken));
+    }
+
+    /**
+     * Fill in this user from their data on the api, recounting their stats from
+     * scratch.
+     * 
+     * @param remote the users data, fetched from the api
+     * @throws IOException if the data couldn't be read
+     */
+    private void __load(RemoteUser remote) throws IOException {
+        this.__loadStudent(remote.student);
+        this.__resetStats();
+        this.__syncScores(remote.scores);
+        for (JSONMutation m : MutationJournal.get().getPending(this.id))
+            this.__apply(m);
+        this.__saveData();
+    }
+
+    /**
+     * Bring this user up to date with their data on the api, only counting scores
+     * which have been added since the last sync.
+     * 
+     * @param remote the users data, fetched from the api
+     * @throws IOException if the data couldn't be read
+     */
+    private void __sync(RemoteUser remote) throws IOException {
+        this.__loadStudent(remote.student);
+        this.__syncScores(remote.scores);
+        // Pending scores are already counted, as the stats weren't reset
+        for (JSONMutation m : MutationJournal.get().getPending(this.id)) {
+            if (m.type != MutationType.Score)
+                this.__apply(m);
+        }
+        this.__saveData();
+    }
 
+    /**
+     * Load the users profile, costumes, achievements and scores from the api. Only
+     * makes requests, so can be called from any thread.
+     * 
+     * @param token the token of the user
+     * @return the users data
+     * @throws IOException if unable to contact the api
+     */
+    private static RemoteUser __fetch(String token) throws IOException {
+        RemoteUser remote = new RemoteUser();
+        remote.student = __fetchStudent(token);
+        Response res = API.makeRequest(RequestMethod.Get, "/scores?id=" + remote.student.id, null, token);
+        remote.scores = new Gson().fromJson(res.getBody(), JSONScores.class);
+        return remote;
+    }
+
+    /**
+     * Load the users profile, costumes and achievements from the api. Only makes a
+     * request, so can be called from any thread.
+     * 
+     * @param token the token of the user
+     * @return the users profile
+     * @throws IOException if unable to contact the api
+     */
+    private static JSONStudent __fetchStudent(String token) throws IOException {
+        Response res = API.makeRequest(RequestMethod.Get, "/student", null, token);
+        return new Gson().fromJson("{" + res.loadJsonData() + "}", JSONStudent.class);
+    }
+
+    /**
+     * Fetch the users data from the api in the background, then apply it on the
+     * javafx thread, unless the user has signed out since.
+     * 
+     * @param loader applies the data to this user
+     * @return a future which completes once the data has been applied
+     */
+    private CompletableFuture<Void> __fetchAsync(Loader loader) {
+        String token = this.JWTToken;
+        return API.runAsync(() -> __fetch(token)).thenAcceptAsync(remote -> {
+            if (!token.equals(this.JWTToken))
+                return; // Signed out since
+            try {
+                loader.load(remote);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, API.fxThread);
+    }
+
+    /**
+     * Apply a change to the local copy of this user, ahead of it being accepted by
+     * the api.
+     * 
+     * @param m the change to apply
+     */
+    private void __apply(JSONMutation m) {
+        switch (m.type) {
+        case Score:
+            this.__applyScore(m.score, m.num_stars);
+            break;
+        case Achievement:
+            if (!this.unlockedAchievements.contains(m.name))
+                this.unlockedAchievements.add(m.name);
+            break;
+        case Costume:
+            this.unlockedAvatars.add(Avatar.fromString(m.name));
+            break;
+        case Avatar:
+            this.selectedAvatar = Avatar.fromString(m.name);
+            break;
+        }
+    }
+
+    /**
+     * Keep this user up to date with the outcome of a change once it has been
+     * sent. Accepted scores are now counted by the api, and if a change is rejected
+     * our local copy is wrong, so everything is reloaded in the background. The
+     * user is only changed on the javafx thread.
+     * 
+     * @param m      the change being sent
+     * @param result the result of sending the change
+     */
+    private void __track(JSONMutation m, CompletableFuture<Boolean> result) {
+        if (result == null)
+            return;
+        String token = this.JWTToken;
+        result.thenAcceptAsync(accepted -> {
+            if (!token.equals(this.JWTToken))
+                return; // Signed out since
+            if (accepted && m.type == MutationType.Score) {
+                this.scoreCursor++;
+                this.__saveData();
+            } else if (!accepted) {
+                this.__fetchAsync(this::__load).exceptionally(e -> {
+                    System.err.println("Unable to reload user after a rejected change: " + e);
+                    return null;
+                });
+            }
+        }, API.fxThread);
+    }
+
+    /**
+     * Record a change in the journal, so it is sent to the api in the background
+     * even if we are currently offline, and apply it straight away.
+     * 
+     * @param m the change to record
+     * @throws IOException if the journal can't be written
+     */
+    private void __record(JSONMutation m) throws IOException {
+        MutationJournal journal = MutationJournal.get();
+        m.token = this.JWTToken;
+        m.usr_id = this.id;
+        if (m.type == MutationType.Score) {
+            int queued = 0;
+            for (JSONMutation other : journal.getPending(this.id)) {
+                if (other.type == MutationType.Score)
+                    queued++;
+            }
+            m.expected_scores = this.scoreCursor + queued;
+        }
+        CompletableFuture<Boolean> result = journal.append(m);
+        this.__apply(m);
+        this.__saveData();
+        this.__track(m, result);
+    }
+
+    /**
+     * Fill in the users profile, costumes and achievements from the api.
+     * 
+     * @param student the users profile, fetched from the api
+     * @throws IOException if one of the achievements isn't recognised
+     */
+    private void __loadStudent(JSONStudent student) throws IOException {
         // Set id
         this.id = student.id;
 
@@ -144,74 +495,171 @@ public class User implements Serializable {
                 achievementUpdate.add(newAchievement);
         }
         this.unlockedAchievements = achievementUpdate;
+    }
 
-        // Load and process score data
-        res = API.makeRequest(RequestMethod.Get, "/scores?id=" + this.id, null, this.JWTToken);
-        JSONScores scores = new Gson().fromJson(res.getBody(), JSONScores.class);
-
-        int newGamesPlayed = 0;
-        int newHighScore = 0;
-        int newTotalStars = 0;
-        for (JSONScore score : scores.data) {
-            newTotalStars += score.num_stars;
-            if (score.score > newHighScore)
-                newHighScore = score.score;
-            // HACK to allow additional stars to be added.
-            if (score.score != -1)
-                newGamesPlayed++;
-        }
-        this.totalStars = newTotalStars;
-        this.highScore = newHighScore;
-        this.numGamesPlayed = newGamesPlayed;
+    /**
+     * Clear the users stats, so they can be recounted from their scores.
+     */
+    private void __resetStats() {
+        this.totalStars = 0;
+        this.highScore = 0;
+        this.numGamesPlayed = 0;
+        this.scoreCursor = 0;
+    }
+
+    /**
+     * Count a single score towards the users stats.
+     * 
+     * @param score    the score achieved, -1 if stars were added outside of a game
+     * @param numStars the number of stars gained, may be negative
+     */
+    private void __applyScore(int score, int numStars) {
+        this.totalStars += numStars;
+        if (score > this.highScore)
+            this.highScore = score;
+        // HACK to allow additional stars to be added.
+        if (score != -1)
+            this.numGamesPlayed++;
+    }
+
+    /**
+     * Bring the users stats up to date with the api. Only the scores after the
+     * cursor are counted, as the rest are already included in the stats. If the
+     * api has fewer scores than expected the account has been reset elsewhere, so
+     * everything is recounted.
+     * 
+     * @param scores the users scores, fetched from the api
+     */
+    private void __syncScores(JSONScores scores) {
+        if (scores.data.size() < this.scoreCursor)
+            this.__resetStats();
+        for (JSONScore score : scores.data.subList(this.scoreCursor, scores.data.size()))
+            this.__applyScore(score.score, score.num_stars);
+        this.scoreCursor = scores.data.size();
+    }
+
+    /**
+     * Ask the api to change one of the users names. Only makes a request, so can
+     * be called from any thread.
+     * 
+     * @param path  the endpoint for the name
+     * @param name  the new name
+     * @param token the token of the user
+     * @return the response of the api
+     * @throws IOException if unable to contact the api
+     */
+    private static Response __requestName(String path, String name, String token) throws IOException {
+        String body = "{\"name\":\"" + name.replace("\"", "\\\"") + "\"}";
+        return API.makeRequest(RequestMethod.Post, path, body, token);
+    }
+
+    /**
+     * Change one of the users names once the api has answered, saving the change
+     * if it agreed. Shared by setUsername and setNickname and their async
+     * versions, so they always save the same way.
+     * 
+     * @param res    the response of the api, or null for a guest
+     * @param name   the new name
+     * @param setter changes the name
+     * @return null if success or a failure message if not
+     */
+    private String __rename(Response res, String name, Consumer<String> setter) {
+        if (res != null && res.getStatus() != ResponseStatus.Success)
+            return res.loadJsonData();
+        setter.accept(name);
         this.__saveData();
+        return null;
+    }
+
+    /**
+     * Change one of the users names. If logged in the api is asked in the
+     * background, and the name is changed on the javafx thread once it agrees.
+     * 
+     * @param path   the endpoint for the name
+     * @param name   the new name
+     * @param setter changes the name
+     * @return a future with null if success or a failure message if not
+     */
+    private CompletableFuture<String> __renameAsync(String path, String name, Consumer<String> setter) {
+        if (this.JWTToken == null)
+            return CompletableFuture.completedFuture(this.__rename(null, name, setter));
+        String token = this.JWTToken;
+        return API.runAsync(() -> __requestName(path, name, token)).thenApplyAsync(res -> {
+            // Only rename the user who asked, in case they signed out meanwhile
+            if (res.getStatus() == ResponseStatus.Success && !token.equals(this.JWTToken))
+                return null;
+            return this.__rename(res, name, setter);
+        }, API.fxThread);
     }
 
     //// Public Methods ////
 
+    /**
+     * Load the profile which was last in use on this computer, or a fresh guest if
+     * there isn't one. The profile is restored from its saved copy, so no request
+     * is made, call sync to bring it up to date with the api.
+     * 
+     * @throws IOException if an old save had to be loaded from the api, and it
+     *                     couldn't be contacted
+     */
     public User() throws IOException {
-        if (new File(this.userSavePath).isFile()) {
-            //Load from api
-            try {
-                FileInputStream f_in = new FileInputStream(this.userSavePath);
-                ObjectInputStream obj_in = new ObjectInputStream(f_in);
-                Object obj = obj_in.readObject();
-                obj_in.close();
-                if (obj instanceof String) {
-                    String str = (String) obj;
-                    this.JWTToken = str;
-                    this.__loadData();
-                    return;
-                }
-            } catch (ClassNotFoundException e) {
-                e.printStackTrace();
-            }
-        } else if (new File(this.guestSavePath).isFile()) {
-            //Load from disk
-            try {
-                FileInputStream f_in = new FileInputStream(this.guestSavePath);
-                ObjectInputStream obj_in = new ObjectInputStream(f_in);
-                Object obj = obj_in.readObject();
-                obj_in.close();
-                if (obj instanceof User) {
-                    User user = (User) obj;
-                    // Load relevant data from serialized object
-                    this.JWTToken = user.JWTToken;
-                    this.username = user.username;
-                    this.nickname = user.nickname;
-                    this.id = user.id;
-                    this.selectedAvatar = user.selectedAvatar;
-                    this.unlockedAvatars = user.unlockedAvatars;
-                    this.highScore = user.highScore;
-                    this.totalStars = user.totalStars;
-                    this.numGamesPlayed = user.numGamesPlayed;
-                    this.unlockedAchievements = user.unlockedAchievements;
-                    return;
-                }
-            } catch (ClassNotFoundException e) {
-                e.printStackTrace();
-            }
+        // Make sure any recent changes have reached the disk before reading it
+        PersistenceService.get().flush();
+        ProfileStore store = ProfileStore.get();
+        SavedUser saved = store.load(store.getActive());
+        if (saved != null) {
+            this.__restore(saved);
+            if (this.JWTToken != null)
+                this.__resume();
+            return;
         }
-        this.__reset();
+
+        saved = store.isEmpty() ? this.__readSave() : null;
+        if (saved == null) {
+            this.__reset();
+            return;
+        }
+        // Migrate the save from an older version into the profile store
+        this.__restore(saved);
+        if (this.JWTToken != null)
+            this.__resume();
+        this.__saveData();
+        PersistenceService.get().flush();
+        for (String path : new String[] { this.guestSavePath, this.userSavePath, this.legacyGuestSavePath,
+                this.legacyUserSavePath })
+            Files.deleteIfExists(Paths.get(path));
+    }
+
+    /**
+     * Restore a user from their profile on this computer, and make it the active
+     * profile. This is instant, as no request is made, call sync afterwards to
+     * bring the user up to date with the api.
+     * 
+     * @param key the key of the profile in the profile store
+     * @return the user, or null if there is no such profile
+     * @throws IOException if the profile was saved by an older version and had to
+     *                     be loaded from the api, but it couldn't be contacted
+     */
+    public static User load(String key) throws IOException {
+        SavedUser saved = ProfileStore.get().load(key);
+        if (saved == null)
+            return null;
+        User user = new User(saved);
+        user.__saveData();
+        return user;
+    }
+
+    /**
+     * Restore a user from a save, used by load.
+     * 
+     * @param saved the save to restore
+     * @throws IOException if the user had to be loaded from the api, but it
+     *                     couldn't be contacted
+     */
+    private User(SavedUser saved) throws IOException {
+        this.__restore(saved);
+        if (this.JWTToken != null)
+            this.__resume();
     }
 
     /**
@@ -238,7 +686,9 @@ public class User implements Serializable {
     }
 
     /**
-     * Login a user to the api
+     * Login a user to the api. If the student has a profile saved on this
+     * computer, it is restored once the api accepts their password, rather than
+     * recounting every score, so call sync afterwards to bring it up to date.
      * 
      * @param username the username of the account
      * @param password the password of the account
@@ -250,7 +700,19 @@ public class User implements Serializable {
         Response res = API.makeRequest(RequestMethod.Post, "/student/login", body, this.JWTToken);
         if (res.getStatus() == ResponseStatus.Success) {
             // Succesful login, lets go from here. main
-            this.JWTToken = res.loadJsonData();
+            String token = res.loadJsonData();
+            JSONStudent student = __fetchStudent(token);
+            // Anything still queued from an earlier sign in is sent with the new token
+            MutationJournal.get().setToken(student.id, token);
+            SavedUser saved = ProfileStore.get().load(ProfileStore.keyFor(student.id));
+            if (saved != null) {
+                this.__restore(saved);
+                this.JWTToken = token;
+                this.__loadStudent(student);
+                this.__saveData();
+                return null;
+            }
+            this.JWTToken = token;
             this.username = name;
             // Load user data
             this.__loadData();
@@ -260,36 +722,35 @@ public class User implements Serializable {
     }
 
     /**
-     * Save a new score for this user, should be called at the end of the quiz.
+     * Save a new score for this user, should be called at the end of the quiz. For
+     * a logged in user the score is journalled and sent to the api in the
+     * background, so this never waits on the network and can be called from the
+     * javafx thread.
      * 
      * @param score the score to be saved
      * @return null if success, string with error to be displayed to user otherwise
-     * @throws IOException throws if unable to complete the request
+     * @throws IOException throws if unable to record the score
      */
     public String addScore(int score, int numStars) throws IOException {
         if (this.JWTToken != null) {
-            // User logged in
-            String body = "{\"score\":" + score + ",\"num_stars\":" + numStars + "}";
-            Response res = API.makeRequest(RequestMethod.Post, "/scores", body, this.JWTToken);
-            if (res.getStatus() == ResponseStatus.Success) {
-                // Succesfully added score, we should also update our local status now.
-                this.__loadData();
-                return null;
-            }
-            return res.loadJsonData();
+            // User logged in, the score is sent to the api in the background
+            JSONMutation m = new JSONMutation();
+            m.type = MutationType.Score;
+            m.score = score;
+            m.num_stars = numStars;
+            this.__record(m);
+            return null;
         } else {
             // If user not logged in
-            if (score > this.highScore)
-                this.highScore = score;
-            this.numGamesPlayed += 1;
-            this.totalStars += numStars;
+            this.__applyScore(score, numStars);
             this.__saveData();
             return null;
         }
     }
 
     /**
-     * Request the api to unlock a costume for this user
+     * Request the api to unlock a costume for this user. The purchase is
+     * journalled like any other change, so the costume can be worn straight away.
      * 
      * @param avatar the avatar the user wishes to attempt to unlock
      * @return a string, null if succesful, or containing an error message otherwise
@@ -307,21 +768,24 @@ public class User implements Serializable {
 
         // Carry out purchase
         if (this.JWTToken != null) {
-            String body = "{\"name\":\"" + avatar.toString() + "\"}";
-            Response res = API.makeRequest(RequestMethod.Post, "/student/costumes", body, this.JWTToken);
-            if (res.getStatus() == ResponseStatus.Success) {
-                // Succesfully added score, we should also update our local status now.
-                String addScoreRes = this.addScore(-1, -MainApp.getAPI().getPrice(avatar));
-                this.__loadData();
+            JSONMutation costume = new JSONMutation();
+            costume.type = MutationType.Costume;
+            costume.name = avatar.toString();
+            this.__record(costume);
 
-                // check to see if stylish badge can be awarded
-                if (this.unlockedAvatars.size() == 10) {
-                    this.unlockAchievement("STYLISH_1");
-                }
+            // Only pay for the costume if the api lets us buy it
+            JSONMutation payment = new JSONMutation();
+            payment.type = MutationType.Score;
+            payment.score = -1;
+            payment.num_stars = -MainApp.getAPI().getPrice(avatar);
+            payment.after = costume.seq;
+            this.__record(payment);
 
-                return addScoreRes;
+            // check to see if stylish badge can be awarded
+            if (this.unlockedAvatars.size() == 10) {
+                this.unlockAchievement("STYLISH_1");
             }
-            return res.loadJsonData();
+            return null;
         } else {
             // Guest account
             this.unlockedAvatars.add(avatar);
@@ -340,28 +804,50 @@ public class User implements Serializable {
      * @throws IOException throws if unable to complete the request
      */
     public String unlockAchievement(String achievement) throws IOException {
-        if (this.unlockedAchievements.contains(achievement))
+        return this.unlockAchievements(List.of(achievement));
+    }
+
+    /**
+     * Request the api to unlock several achievements for this user at once. Only
+     * the achievements the user doesn't already have are recorded, and they are
+     * sent to the api together in the background. WARNING: THE API DOES NOT
+     * VALIDATE IF THEY HAVE ACTUALLY EARNED THESE, THAT NEEDS TO BE DONE JAVA-SIDE
+     * FOR NOW.
+     * 
+     * @param achievements the achievements to unlock
+     * @return null if succesful, or an error message otherwise
+     * @throws IOException throws if unable to record the changes
+     */
+    public String unlockAchievements(Collection<String> achievements) throws IOException {
+        List<String> delta = new ArrayList<>();
+        for (String achievement : achievements) {
+            if (!this.unlockedAchievements.contains(achievement) && !delta.contains(achievement))
+                delta.add(achievement);
+        }
+        if (delta.isEmpty())
             return null;
 
         if (this.JWTToken != null) {
-            String body = "{\"name\":\"" + Achievement.toString(achievement) + "\"}";
-            Response res = API.makeRequest(RequestMethod.Post, "/student/achievement", body, this.JWTToken);
-            if (res.getStatus() == ResponseStatus.Success) {
-                // Succesfully added score, we should also update our local status now.
-                this.__loadData();
-                return null;
+            for (String achievement : delta) {
+                // Fail now rather than when sending, if this isn't a real achievement
+                Achievement.toString(achievement);
+                JSONMutation m = new JSONMutation();
+                m.type = MutationType.Achievement;
+                m.name = achievement;
+                this.__record(m);
             }
-            return res.loadJsonData();
+            return null;
         } else {
             // Guest account
-            this.unlockedAchievements.add(achievement);
+            this.unlockedAchievements.addAll(delta);
             this.__saveData();
             return null;
         }
     }
 
     /**
-     * Change this users avatar
+     * Change this users avatar. The change is journalled and sent to the api in the
+     * background.
      * 
      * @param avatar the avatar to change to
      * @return a string, null if success or with a failure message if not.
@@ -371,14 +857,11 @@ public class User implements Serializable {
         if (!this.unlockedAvatars.contains(avatar))
             return "Avatar not unlocked!";
         if (this.JWTToken != null) {
-            Response res = API.makeRequest(RequestMethod.Post, "/student/" + avatar.toString().replace("\"", "\\\""),
-                    "", this.JWTToken);
-            if (res.getStatus() == ResponseStatus.Success) {
-                this.__loadData();
-                return null;
-            }
-            return res.loadJsonData();
-
+            JSONMutation m = new JSONMutation();
+            m.type = MutationType.Avatar;
+            m.name = avatar.toString();
+            this.__record(m);
+            return null;
         } else {
             this.selectedAvatar = avatar;
             this.__saveData();
@@ -394,20 +877,8 @@ public class User implements Serializable {
      * @throws IOException if unable to contact api
      */
     public String setUsername(String name) throws IOException {
-        if (this.JWTToken != null) {
-            String body = "{\"name\":\"" + name.toString().replace("\"", "\\\"") + "\"}";
-            Response res = API.makeRequest(RequestMethod.Post, "/student/username", body, this.JWTToken);
-            if (res.getStatus() == ResponseStatus.Success) {
-                this.__loadData();
-                return null;
-            }
-            Modal.showGeneralModal(ErrorModal.USERNAME);
-            return res.loadJsonData();
-        } else {
-            this.username = name;
-            this.__saveData();
-            return null;
-        }
+        Response res = (this.JWTToken != null) ? __requestName("/student/username", name, this.JWTToken) : null;
+        return this.__rename(res, name, n -> this.username = n);
     }
 
     /**
@@ -418,30 +889,54 @@ public class User implements Serializable {
      * @throws IOException if unable to contact api
      */
     public String setNickname(String name) throws IOException {
-        if (this.JWTToken != null) {
-            String body = "{\"name\":\"" + name.toString().replace("\"", "\\\"") + "\"}";
-            Response res = API.makeRequest(RequestMethod.Post, "/student/nickname", body, this.JWTToken);
-            if (res.getStatus() == ResponseStatus.Success) {
-                this.__loadData();
-                return null;
-            }
-            return res.loadJsonData();
-        } else {
-            this.nickname = name;
-            this.__saveData();
-            return null;
-        }
+        Response res = (this.JWTToken != null) ? __requestName("/student/nickname", name, this.JWTToken) : null;
+        return this.__rename(res, name, n -> this.nickname = n);
+    }
+
+    /**
+     * Change this users username, as setUsername does. The request is made off the
+     * javafx thread, and the user is updated on it, so this should be used by the
+     * views.
+     * 
+     * @param name the username to change to
+     * @return a future with null if success or a failure message if not
+     */
+    public CompletableFuture<String> setUsernameAsync(String name) {
+        return this.__renameAsync("/student/username", name, n -> this.username = n);
+    }
+
+    /**
+     * Change this users nickname, as setNickname does. The request is made off the
+     * javafx thread, and the user is updated on it, so this should be used by the
+     * views.
+     * 
+     * @param name the nickname to change to
+     * @return a future with null if success or a failure message if not
+     */
+    public CompletableFuture<String> setNicknameAsync(String name) {
+        return this.__renameAsync("/student/nickname", name, n -> this.nickname = n);
     }
 
     /**
-     * Sign the user out, note that if the user is not logged in will merely reset
-     * their account.
+     * Sign the user out, switching back to the guest profile on this computer.
+     * The students profile is kept without their token, so it can be shown
+     * straight away once they sign in again. Note that if the user is not logged
+     * in will merely reset their account.
      */
     public void signout() {
-        if (this.JWTToken == null)
+        if (this.JWTToken == null) {
             System.err.println("Warning! Logout was clicked with a guest account.");
-        // Reset Account
-        this.__reset();
+            // Reset Account
+            this.__reset();
+            return;
+        }
+        ProfileStore store = ProfileStore.get();
+        String key = this.__key();
+        SavedUser saved = this.__snapshot();
+        saved.token = null;
+        store.put(key, saved);
+        PersistenceService.get().schedule("profile:" + key, () -> store.write(key));
+        this.__switchToGuest();
     }
 
     /**
@@ -458,12 +953,47 @@ public class User implements Serializable {
             Response res = API.makeRequest(RequestMethod.Delete, "/student", null, this.JWTToken);
             if (res.getStatus() == ResponseStatus.Failure)
                 return res.loadJsonData();
+            MutationJournal.get().discard(this.id);
+            ProfileStore.get().remove(this.__key());
+            this.__switchToGuest();
+            return null;
         }
         // Reset this instance
         this.__reset();
         return null;
     }
 
+    /**
+     * Delete this user account, as deleteAccount does. The request is made off the
+     * javafx thread, and the user is updated on it, so this should be used by the
+     * views.
+     * 
+     * @return a future with null if succesful, or an error message otherwise
+     */
+    public CompletableFuture<String> deleteAccountAsync() {
+        if (this.JWTToken == null) {
+            this.__reset();
+            return CompletableFuture.completedFuture(null);
+        }
+        String token = this.JWTToken;
+        Integer account = this.id;
+        return API.runAsync(() -> API.makeRequest(RequestMethod.Delete, "/student", null, token))
+                .thenApplyAsync(res -> {
+                    if (res.getStatus() == ResponseStatus.Failure)
+                        return res.loadJsonData();
+                    try {
+                        MutationJournal.get().discard(account);
+                        if (token.equals(this.JWTToken)) {
+                            ProfileStore.get().remove(this.__key());
+                            this.__switchToGuest();
+                        }
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                    return null;
+                }, API.fxThread);
+    }
+
     /**
      * Reset this user account data, this is a permenant irreversible action.
      * 
@@ -475,6 +1005,7 @@ public class User implements Serializable {
         if (this.JWTToken != null) {
             Response res = API.makeRequest(RequestMethod.Post, "/student/reset", "", this.JWTToken);
             if (res.getStatus() == ResponseStatus.Success) {
+                MutationJournal.get().discard(this.id);
                 this.__loadData();
                 return null;
             }
@@ -484,6 +1015,33 @@ public class User implements Serializable {
         return null;
     }
 
+    /**
+     * Reset this user account data, as resetAccount does. The requests are made off
+     * the javafx thread, and the user is updated on it, so this should be used by
+     * the views.
+     * 
+     * @return a future with null if succesful, or an error message otherwise
+     */
+    public CompletableFuture<String> resetAccountAsync() {
+        if (this.JWTToken == null) {
+            this.__reset();
+            return CompletableFuture.completedFuture(null);
+        }
+        String token = this.JWTToken;
+        Integer account = this.id;
+        return API.runAsync(() -> API.makeRequest(RequestMethod.Post, "/student/reset", "", token))
+                .thenComposeAsync(res -> {
+                    if (res.getStatus() != ResponseStatus.Success)
+                        return CompletableFuture.completedFuture(res.loadJsonData());
+                    try {
+                        MutationJournal.get().discard(account);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                    return this.__fetchAsync(this::__load).thenApply(loaded -> (String) null);
+                }, API.fxThread);
+    }
+
     /**
      * Check whether the user is logged in or not.
      * 
@@ -503,20 +1061,51 @@ public class User implements Serializable {
     }
 
     /**
-     * Request this users list of unlocked costumes from the API.
+     * Get this users list of unlocked costumes. Purchases made through this
+     * instance are tracked locally, so no request is made.
      * 
      * @return a hashset containing all of the users bought costumes
      */
     public HashSet<Avatar> getCostumes() {
-        if (this.JWTToken != null) {
-            try {
-                this.__loadData();
-            } catch (IOException e) {
-            }
-        }
         return this.unlockedAvatars;
     }
 
+    /**
+     * Reload all of this users data from the api, recounting their stats from
+     * every score. Only needed if the account may have been changed elsewhere.
+     * 
+     * @throws IOException if unable to contact the api
+     */
+    public void refresh() throws IOException {
+        if (this.JWTToken != null)
+            this.__loadData();
+    }
+
+    /**
+     * Bring this users data up to date with the api, only counting scores which
+     * have been added since the last sync. Changes which haven't reached the api
+     * yet are kept.
+     * 
+     * @throws IOException if unable to contact the api
+     */
+    public void sync() throws IOException {
+        if (this.JWTToken != null)
+            this.__sync(__fetch(this.JWTToken));
+    }
+
+    /**
+     * Bring this users data up to date with the api in the background, as sync
+     * does. The requests are made off the javafx thread, and the user is updated
+     * on it, so this should be used by the views.
+     * 
+     * @return a future which completes once the user is up to date
+     */
+    public CompletableFuture<Void> syncAsync() {
+        if (this.JWTToken == null)
+            return CompletableFuture.completedFuture(null);
+        return this.__fetchAsync(this::__sync);
+    }
+
     /**
      * Checks whether a user has enough money to make a purchase of a costume.
      * 
@@ -1,6 +1,9 @@
 package com.models;
 
+import java.text.Normalizer;
+
 import com.enums.Status;
+import com.util.AnswerMatcher;
 
 /**
  * A word the user may be tested on. Has english and maori representations
@@ -12,6 +15,41 @@ public class Word {
     private Status status;
     private int time;
     private Word response;
+    // The maori translation as code points, normalised once so answers can be
+    // compared without allocating
+    private int[] maoriCodePoints;
+    // Which characters of the maori translation the last response got right
+    private boolean[] correctCharacters;
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Normalise a translation, so that the same spelling always has the same
+     * representation. I.e. a macron typed as a combining character is folded into
+     * its precomposed form.
+     * 
+     * @param s the translation
+     * @return the stripped, lowercased and composed translation
+     */
+    private static String __normalise(String s) {
+        return Normalizer.normalize(s.strip(), Normalizer.Form.NFC).toLowerCase();
+    }
+
+    /**
+     * Compare a response against the maori translation, character by character,
+     * recording which characters were right.
+     * 
+     * @param response the code points of the response
+     * @param matcher  how strictly to mark the response
+     * @return true if the response is accepted
+     */
+    private boolean __compareMaori(int[] response, AnswerMatcher matcher) {
+        int length = this.maoriCodePoints.length;
+        if (this.correctCharacters == null || this.correctCharacters.length != length)
+            this.correctCharacters = new boolean[length];
+        return matcher.matches(this.maoriCodePoints, response, this.correctCharacters);
+    }
+
     //// Constructors ////
 
     /**
@@ -26,8 +64,8 @@ public class Word {
 
     /**
      * Create a new word, with the english and maori translations Note that
-     * translations will be automatically stripped and lowercased for conversion
-     * purposes.
+     * translations will be automatically stripped, lowercased and composed for
+     * conversion purposes.
      * 
      * @param english
      * @param maori
@@ -36,11 +74,33 @@ public class Word {
         if (english != null)
             this.english = english.strip().toLowerCase();
         if (maori != null)
-            this.maori = maori.strip().toLowerCase();
+            this.setMaori(maori);
         this.status = Status.SKIPPED;
         this.time = 0;
     }
 
+    /**
+     * Create a response from code points which are already normalised, i.e. read
+     * straight from the input tiles. A code point of 0 marks a missing character,
+     * which is left out of the text but still never matches.
+     * 
+     * @param codePoints the stripped, lowercased and composed code points
+     * @param length     the number of code points to use
+     * @return the word, with only the maori translation set
+     */
+    public static Word fromMaoriCodePoints(int[] codePoints, int length) {
+        Word word = new Word();
+        word.maoriCodePoints = new int[length];
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.maoriCodePoints[i] = codePoints[i];
+            if (codePoints[i] != 0)
+                text.appendCodePoint(codePoints[i]);
+        }
+        word.maori = text.toString();
+        return word;
+    }
+
     //// Public Methods ////
 
     /**
@@ -61,6 +121,20 @@ public class Word {
      * @return true if equal, false otherwise.
      */
     public Boolean isEqualStrict(Word word) throws NullPointerException {
+        return this.isEqual(word, AnswerMatcher.EXACT);
+    }
+
+    /**
+     * Checks if two words are equal, as strictly as the matcher says. The maori
+     * translation may be marked leniently, i.e. ignoring macrons, while the
+     * english translation is always compared exactly. Updates the status of this
+     * word in the same way as isEqualStrict.
+     * 
+     * @param word    the word to compare against.
+     * @param matcher how strictly to compare the maori translation.
+     * @return true if equal, false otherwise.
+     */
+    public Boolean isEqual(Word word, AnswerMatcher matcher) throws NullPointerException {
         if (word.getEnglish() == null && word.getMaori() == null)
             throw new NullPointerException("both english and maori are null");
         if (this.getEnglish() == null && this.getMaori() == null)
@@ -72,7 +146,7 @@ public class Word {
         if (word.getEnglish() != null)
             comparison = word.getEnglish().equals(this.getEnglish());
         if (word.getMaori() != null)
-            comparison = word.getMaori().equals(this.getMaori());
+            comparison = this.getMaori() != null && this.__compareMaori(word.getMaoriCodePoints(), matcher);
 
         // Update the status
         if (comparison) {
@@ -124,6 +198,25 @@ public class Word {
         return this.maori;
     }
 
+    /**
+     * @return the normalised code points of the maori translation, which must not
+     *         be modified.
+     */
+    public int[] getMaoriCodePoints() {
+        return this.maoriCodePoints;
+    }
+
+    /**
+     * Get which characters of the maori translation the last response got right,
+     * indexed by code point. A missing character counts as wrong.
+     * 
+     * @return the result for each character, or null if the maori translation
+     *         hasn't been compared yet. Must not be modified.
+     */
+    public boolean[] getCorrectCharacters() {
+        return this.correctCharacters;
+    }
+
     /**
      * Set the english word translation for this word
      * 
@@ -139,7 +232,9 @@ public class Word {
      * @param s the word to set
      */
     public void setMaori(String s) {
-        this.maori = s.strip().toLowerCase();
+        this.maori = __normalise(s);
+        this.maoriCodePoints = this.maori.codePoints().toArray();
+        this.correctCharacters = null;
     }
 
     /**
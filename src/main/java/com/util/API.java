@@ -1,34 +1,58 @@
 package com.util;
 
 import com.enums.Avatar;
-import com.google.gson.Gson;
-import com.models.APIModels.JSONCostume;
-import com.models.APIModels.JSONCostumes;
 import com.models.APIModels.RequestMethod;
 import com.models.APIModels.Response;
 import com.models.APIModels.ResponseStatus;
 
-import javax.net.ssl.HttpsURLConnection;
+import javafx.application.Platform;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.URL;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.AbstractMap;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class API {
     //// Constants ////
     private static final String apiPath = "https://kemukupu.com/api/v1";
     // private static final String apiPath = "http://localhost:8000/api/v1";
+    private static final Duration connectTimeout = Duration.ofSeconds(5);
+    private static final Duration requestTimeout = Duration.ofSeconds(10);
+    private static final Duration defaultPriceTtl = Duration.ofMinutes(10);
+    private static final String pricesPath = "./.cache/prices.json";
+
+    // Runs api calls and their callbacks off the javafx thread
+    private static final ExecutorService worker = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "api-worker");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // A single client is shared by all requests, so connections are pooled
+    private static final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout).executor(worker).build();
 
-    //// Properties ////
+    /**
+     * Runs callbacks on the javafx thread, used to update the ui with the results of
+     * a request.
+     */
+    public static final Executor fxThread = Platform::runLater;
 
-    private Map<Avatar, Integer> costAvatars = Map.ofEntries(
+    // Used until the prices have been fetched from the api
+    private static final Map<Avatar, Integer> defaultPrices = Map.ofEntries(
             new AbstractMap.SimpleEntry<Avatar, Integer>(Avatar.DEFAULT, 0),
             new AbstractMap.SimpleEntry<Avatar, Integer>(Avatar.SAILOR, 5),
             new AbstractMap.SimpleEntry<Avatar, Integer>(Avatar.MAGICIAN, 30),
@@ -40,33 +64,31 @@ public class API {
             new AbstractMap.SimpleEntry<Avatar, Integer>(Avatar.ALIEN, 50),
             new AbstractMap.SimpleEntry<Avatar, Integer>(Avatar.CHEF, 20));
 
-    //// Private Methods ////
-    /**
-     * Update the prices internally from the api
-     * 
-     * @throws IOException thrown when the service is unable to contact the server.
-     */
-    private void __updatePrices() throws IOException {
-        Response res = API.makeRequest(RequestMethod.Get, "/costume", null, null);
-        JSONCostumes costumes = new Gson().fromJson(res.getBody(), JSONCostumes.class);
-        // Load and process price data
-        HashMap<Avatar, Integer> priceUpdate = new HashMap<>();
-        for (JSONCostume avatarName : costumes.data) {
-            Avatar newAvatar = Avatar.fromString(avatarName.name);
-            if (!priceUpdate.containsKey(newAvatar))
-                priceUpdate.put(newAvatar, avatarName.price);
-        }
-        this.costAvatars = priceUpdate;
-    }
+    //// Properties ////
+    private final PriceCatalogue prices;
 
     //// Public Methods ////
 
     public API() {
+        this(defaultPriceTtl);
+    }
 
+    /**
+     * Create an api instance, and begin fetching the costume prices in the
+     * background so they are ready by the time the shop is opened.
+     * 
+     * @param priceTtl how long costume prices are used before being refreshed
+     */
+    public API(Duration priceTtl) {
+        this.prices = new PriceCatalogue(defaultPrices, priceTtl, Paths.get(pricesPath));
+        if (this.prices.isStale())
+            this.prices.refresh();
     }
 
     /**
-     * A helper method for making http requests to the kemukupu api Docs:
+     * A helper method for making asynchronous http requests to the kemukupu api.
+     * Requests share a single pooled http/2 client, and are subject to connect and
+     * response timeouts so a slow server can never hang the caller. Docs:
      * https://kemukupu.com/api/docs
      * 
      * @param method   the http method to use
@@ -74,82 +96,130 @@ public class API {
      * @param data     the body of the request
      * @param JWTToken The token for this user. This may be null if you wish to send
      *                 the request without authorisation.
-     * @return a response instance.
+     * @return a future which completes with the response, or completes
+     *         exceptionally with an IOException if the server could not be
+     *         contacted.
      * @throws IllegalArgumentException thrown when one of the input paramaters is
      *                                  incorrect.
-     * @throws IOException              thrown when the service is unable to contact
-     *                                  the server.
      */
-    public static Response makeRequest(RequestMethod method, String path, String data, String JWTToken)
-            throws IllegalArgumentException, IOException {
+    public static CompletableFuture<Response> makeRequestAsync(RequestMethod method, String path, String data,
+            String JWTToken) throws IllegalArgumentException {
         if (path == null)
             throw new IllegalArgumentException("Path must be set for request");
         if (method == null)
             throw new IllegalArgumentException("Method must be set");
         if (data == null && method == RequestMethod.Post)
             throw new IllegalArgumentException("When posting data cannot be null");
-        try {
-            // Establish connection
-            String url = apiPath + path;
-            HttpsURLConnection connection = (HttpsURLConnection) new URL(url).openConnection();
-            connection.setRequestMethod(method.toString());
-            connection.setDoOutput(true);
-
-            // If we have an auth header, set it
-            if (JWTToken != null) {
-                connection.addRequestProperty("Authorisation", JWTToken);
-            }
-
-            // Add body if post request
-            if (method == RequestMethod.Post) {
-                byte[] out = data.getBytes(StandardCharsets.UTF_8);
-                connection.setFixedLengthStreamingMode(out.length);
-                connection.setRequestProperty("Content-Type", "application/json; charset=UTF-8");
-                connection.connect();
-                try (OutputStream os = connection.getOutputStream()) {
-                    os.write(out);
-                    os.close();
-                }
-            } else {
-                connection.connect();
-            }
 
-            // Process Response
-            int responseCode = connection.getResponseCode();
-            InputStream inputStream;
-            if (200 <= responseCode && responseCode <= 299) {
-                inputStream = connection.getInputStream();
-            } else {
-                inputStream = connection.getErrorStream();
-            }
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(apiPath + path)).timeout(requestTimeout);
 
-            BufferedReader in = new BufferedReader(new InputStreamReader(inputStream));
+        // If we have an auth header, set it
+        if (JWTToken != null)
+            request.header("Authorisation", JWTToken);
 
-            StringBuilder response = new StringBuilder();
-            String currentLine;
+        // Add body if post request
+        if (method == RequestMethod.Post) {
+            request.header("Content-Type", "application/json; charset=UTF-8");
+            request.POST(HttpRequest.BodyPublishers.ofString(data, StandardCharsets.UTF_8));
+        } else {
+            request.method(method.toString(), HttpRequest.BodyPublishers.noBody());
+        }
 
-            while ((currentLine = in.readLine()) != null)
-                response.append(currentLine);
-            in.close();
+        // Process Response, line breaks are dropped as Response expects a single line
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .thenApply(res -> new Response(res.body().replace("\r", "").replace("\n", ""),
+                        (200 <= res.statusCode() && res.statusCode() <= 299) ? ResponseStatus.Success
+                                : ResponseStatus.Failure,
+                        res.statusCode(), path));
+    }
 
-            return new Response(response.toString(),
-                    (200 <= responseCode && responseCode <= 299) ? ResponseStatus.Success : ResponseStatus.Failure, path);
-        } catch (java.net.UnknownHostException e) {
-            throw new IOException(e.toString());
-        } catch (Exception e) {
+    /**
+     * A helper method for making http requests to the kemukupu api, blocking until
+     * the response is received. This should not be called from the javafx thread,
+     * use {@link #makeRequestAsync} or {@link #runAsync} instead. Docs:
+     * https://kemukupu.com/api/docs
+     * 
+     * @param method   the http method to use
+     * @param path     the subpath to request to
+     * @param data     the body of the request
+     * @param JWTToken The token for this user. This may be null if you wish to send
+     *                 the request without authorisation.
+     * @return a response instance.
+     * @throws IllegalArgumentException thrown when one of the input paramaters is
+     *                                  incorrect.
+     * @throws IOException              thrown when the service is unable to contact
+     *                                  the server.
+     */
+    public static Response makeRequest(RequestMethod method, String path, String data, String JWTToken)
+            throws IllegalArgumentException, IOException {
+        try {
+            return makeRequestAsync(method, path, data, JWTToken).get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new IOException(e.toString());
         }
     }
 
     /**
-     * Collects the price of an avatar from the MainApp.getAPI(). Note that if the
-     * user hasn't logged in, this will be the default values.
+     * Make a conditional GET request to the kemukupu api. If the resource has not
+     * changed since the given validators were issued the server may respond with
+     * an empty 304, so the raw response is returned to allow the status and
+     * headers to be inspected.
+     * 
+     * @param path         the subpath to request to
+     * @param etag         the etag of the cached copy, or null if unknown
+     * @param lastModified the last modified date of the cached copy, or null if
+     *                     unknown
+     * @return a future which completes with the http response
+     */
+    static CompletableFuture<HttpResponse<String>> getConditionalAsync(String path, String etag,
+            String lastModified) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(apiPath + path)).timeout(requestTimeout).GET();
+        if (etag != null)
+            request.header("If-None-Match", etag);
+        if (lastModified != null)
+            request.header("If-Modified-Since", lastModified);
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Run a task which talks to the api on a background thread, so the javafx
+     * thread is never blocked waiting on the network. Use
+     * {@code whenCompleteAsync(..., API.fxThread)} on the result to update the ui
+     * once the task is done.
+     * 
+     * @param task the task to run
+     * @return a future which completes with the result of the task, or
+     *         exceptionally with the exception it threw.
+     */
+    public static <T> CompletableFuture<T> runAsync(Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, worker);
+    }
+
+    /**
+     * Collects the price of an avatar from the MainApp.getAPI(). Prices are served
+     * from a local cache and never block, if they have not yet been fetched from
+     * the api this will be the default values.
      */
     public Integer getPrice(Avatar avatar) {
-        try {
-            this.__updatePrices();
-        } catch (Exception e) {
-            /* Burn Failures */ }
-        return this.costAvatars.get(avatar);
+        return this.prices.get(avatar);
+    }
+
+    /**
+     * Refresh the costume prices from the api in the background, regardless of
+     * how old they are.
+     * 
+     * @return a future which completes once the prices are up to date
+     */
+    public CompletableFuture<Void> refreshPrices() {
+        return this.prices.refresh();
     }
 }
@@ -0,0 +1,240 @@
+package com.util;
+
+import java.text.Normalizer;
+
+import com.enums.MatchStrictness;
+
+/**
+ * Marks answers against the spelling of a word, at a configurable strictness.
+ * Words are normalised into code points once, when they are loaded, and the
+ * base letter of every accented letter is worked out up front. Marking an
+ * answer then only walks the code points, without regexes, normalising, or
+ * allocating, and takes time proportional to the length of the word. Macrons
+ * typed as a separate mark are composed into their vowel from a table which is
+ * also worked out up front.
+ */
+public class AnswerMatcher {
+    //// Constants ////
+    // Marks answers exactly, the default
+    public static final AnswerMatcher EXACT = new AnswerMatcher(MatchStrictness.EXACT, 0);
+    // The accented latin letters, from À to ɏ, which are folded to their base letter
+    private static final int foldStart = 0x00C0;
+    private static final int foldEnd = 0x024F;
+    private static final int[] foldTable = __buildFoldTable();
+    // A macron typed as its own character after the vowel, as some keyboards do
+    public static final int combiningMacron = 0x0304;
+    // The latin letters, with a macron where one can be added, i.e. a to ā
+    private static final int[] macronTable = __buildMacronTable();
+
+    //// Properties ////
+    private final MatchStrictness strictness;
+    private final int tolerance;
+    // Reused between answers for the edit distance
+    private int[] previousRow = new int[0];
+    private int[] currentRow = new int[0];
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Work out the base letter of every accented latin letter, i.e. ā to a. Only
+     * done once, so folding never has to normalise.
+     *
+     * @return the base letter of each letter from foldStart to foldEnd
+     */
+    private static int[] __buildFoldTable() {
+        int[] table = new int[foldEnd - foldStart + 1];
+        for (int codePoint = foldStart; codePoint <= foldEnd; codePoint++) {
+            String decomposed = Normalizer.normalize(new String(Character.toChars(codePoint)), Normalizer.Form.NFD);
+            int base = decomposed.codePointAt(0);
+            // Only fold letters which are a base letter plus accents, i.e. not æ
+            boolean accented = decomposed.length() > Character.charCount(base);
+            for (int i = Character.charCount(base); i < decomposed.length(); i++) {
+                if (Character.getType(decomposed.charAt(i)) != Character.NON_SPACING_MARK)
+                    accented = false;
+            }
+            table[codePoint - foldStart] = accented ? base : codePoint;
+        }
+        return table;
+    }
+
+    /**
+     * Work out the letter with a macron of every latin letter, i.e. a to ā. Only
+     * done once, so composing never has to normalise.
+     *
+     * @return the letter with a macron of each ascii letter, or the letter itself
+     *         if it can't have one
+     */
+    private static int[] __buildMacronTable() {
+        int[] table = new int['z' + 1];
+        for (int letter = 0; letter < table.length; letter++) {
+            String composed = Normalizer.normalize(new String(new int[] { letter, combiningMacron }, 0, 2),
+                    Normalizer.Form.NFC);
+            table[letter] = (Character.isLetter(letter) && composed.codePointCount(0, composed.length()) == 1)
+                    ? composed.codePointAt(0)
+                    : letter;
+        }
+        return table;
+    }
+
+    /**
+     * Compare two code points at this strictness.
+     */
+    private boolean __same(int expected, int actual) {
+        if (this.strictness == MatchStrictness.EXACT)
+            return expected == actual;
+        return fold(expected) == fold(actual);
+    }
+
+    /**
+     * Check whether the edit distance between two spellings is within the
+     * tolerance. Only the band of the table within the tolerance of the diagonal
+     * is filled in, so this takes time proportional to the length of the spelling
+     * times the tolerance.
+     *
+     * @return true if at most tolerance insertions, deletions or substitutions turn
+     *         one into the other
+     */
+    private boolean __withinTolerance(int[] expected, int[] actual) {
+        int n = expected.length;
+        int m = actual.length;
+        int k = this.tolerance;
+        if (Math.abs(n - m) > k)
+            return false;
+
+        if (this.previousRow.length < m + 1) {
+            this.previousRow = new int[m + 1];
+            this.currentRow = new int[m + 1];
+        }
+        int outside = k + 1; // Anything outside the band is over the tolerance
+        for (int j = 0; j <= m; j++)
+            this.previousRow[j] = j <= k ? j : outside;
+
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - k);
+            int to = Math.min(m, i + k);
+            this.currentRow[0] = i <= k ? i : outside;
+            if (from > 1)
+                this.currentRow[from - 1] = outside;
+
+            int best = this.currentRow[0];
+            for (int j = from; j <= to; j++) {
+                int cost = this.__same(expected[i - 1], actual[j - 1]) ? 0 : 1;
+                int distance = Math.min(this.previousRow[j - 1] + cost,
+                        Math.min(this.previousRow[j], this.currentRow[j - 1]) + 1);
+                this.currentRow[j] = Math.min(distance, outside);
+                best = Math.min(best, this.currentRow[j]);
+            }
+            if (to < m)
+                this.currentRow[to + 1] = outside;
+            if (best > k)
+                return false; // Every path is already over the tolerance
+
+            int[] swap = this.previousRow;
+            this.previousRow = this.currentRow;
+            this.currentRow = swap;
+        }
+        return this.previousRow[m] <= k;
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Create a matcher.
+     *
+     * @param strictness how strictly answers are marked
+     * @param tolerance  the most typing mistakes allowed when tolerant, ignored
+     *                   otherwise
+     */
+    public AnswerMatcher(MatchStrictness strictness, int tolerance) {
+        if (tolerance < 0)
+            throw new IllegalArgumentException("Tolerance must not be negative");
+        this.strictness = strictness;
+        this.tolerance = strictness == MatchStrictness.TOLERANT ? tolerance : 0;
+    }
+
+    /**
+     * Fold a code point to its base letter, i.e. ā to a.
+     *
+     * @param codePoint the code point to fold
+     * @return the base letter, or the code point if it has no accent
+     */
+    public static int fold(int codePoint) {
+        if (codePoint < foldStart || codePoint > foldEnd)
+            return codePoint;
+        return foldTable[codePoint - foldStart];
+    }
+
+    /**
+     * Add a macron to a letter, i.e. a to ā.
+     *
+     * @param codePoint the letter typed before a combining macron
+     * @return the letter with a macron, or the letter itself if it can't have one
+     */
+    public static int composeMacron(int codePoint) {
+        if (codePoint < 0 || codePoint >= macronTable.length)
+            return codePoint;
+        return macronTable[codePoint];
+    }
+
+    /**
+     * Read the character typed into a tile, so that a vowel followed by a
+     * combining macron reads as the vowel with a macron, the same as the
+     * normalised spelling of a word.
+     *
+     * @param text the text of the tile
+     * @return the code point of its first character, or 0 if it is empty
+     */
+    public static int readCharacter(CharSequence text) {
+        if (text.length() == 0)
+            return 0;
+        int first = Character.codePointAt(text, 0);
+        int next = Character.charCount(first);
+        if (next < text.length() && Character.codePointAt(text, next) == combiningMacron)
+            return composeMacron(first);
+        return first;
+    }
+
+    /**
+     * Get the last character typed into a tile, which is all the tile keeps. A
+     * vowel followed by a combining macron is kept as the vowel with a macron,
+     * rather than leaving the macron on its own.
+     *
+     * @param text the text of the tile, must not be empty
+     * @return the character the tile should keep
+     */
+    public static String lastCharacter(String text) {
+        int last = text.codePointBefore(text.length());
+        int start = text.length() - Character.charCount(last);
+        if (last == combiningMacron && start > 0)
+            last = composeMacron(text.codePointBefore(start));
+        return new String(Character.toChars(last));
+    }
+
+    /**
+     * @return how strictly answers are marked
+     */
+    public MatchStrictness getStrictness() {
+        return this.strictness;
+    }
+
+    /**
+     * Mark an answer, recording which of its characters line up with the spelling.
+     *
+     * @param expected the normalised code points of the spelling
+     * @param actual   the normalised code points of the answer, 0 for a missing
+     *                 character
+     * @param correct  filled in with whether each character of the spelling was
+     *                 answered correctly, must be as long as the spelling
+     * @return true if the answer is accepted
+     */
+    public synchronized boolean matches(int[] expected, int[] actual, boolean[] correct) {
+        boolean equal = actual.length == expected.length;
+        for (int i = 0; i < expected.length; i++) {
+            correct[i] = i < actual.length && this.__same(expected[i], actual[i]);
+            equal &= correct[i];
+        }
+        if (equal || this.strictness != MatchStrictness.TOLERANT)
+            return equal;
+        return this.__withinTolerance(expected, actual);
+    }
+}
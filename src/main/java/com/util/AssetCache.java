@@ -0,0 +1,315 @@
+package com.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.MainApp;
+import com.enums.Achievement;
+import com.enums.Avatar;
+import com.enums.Views;
+
+import javafx.scene.image.Image;
+import javafx.scene.text.Font;
+import javafx.util.Builder;
+import javafx.util.BuilderFactory;
+
+/**
+ * An application wide cache of decoded images and loaded fonts, keyed by their
+ * url, so each asset is only decoded once. Images are kept until they use more
+ * than a fixed amount of memory, after which the least recently used are
+ * dropped. Images in fxml files can also be built from the cache, see
+ * getBuilderFactory.
+ */
+public class AssetCache {
+    //// Constants ////
+    // The most memory decoded images may use, an image takes 4 bytes per pixel
+    private static final long maxImageBytes = 256L * 1024 * 1024;
+    private static final Pattern fxmlImage = Pattern.compile("<Image url=\"@([^\"]+)\"");
+
+    //// Properties ////
+    // Ordered from least to most recently used
+    private static final LinkedHashMap<String, Image> images = new LinkedHashMap<>(64, 0.75f, true);
+    private static final HashMap<String, Font> fonts = new HashMap<>();
+    private static long imageBytes = 0;
+    // Shared by every view preload, so showing views often doesn't start threads
+    private static ExecutorService preloader;
+
+    /**
+     * Builds the images in an fxml file from the cache. Only images which just set
+     * their url are cached, any other image is built as normal.
+     */
+    private static class ImageBuilder extends AbstractMap<String, Object> implements Builder<Image> {
+        private String url;
+        private double requestedWidth = 0;
+        private double requestedHeight = 0;
+        private boolean preserveRatio = false;
+        private boolean smooth = true;
+        private boolean backgroundLoading = false;
+        private boolean cacheable = true;
+        // Every property as given, so the fxml loader can read them back
+        private final HashMap<String, Object> properties = new HashMap<>();
+
+        @Override
+        public Object put(String key, Object value) {
+            switch (key) {
+            case "url":
+                this.url = value.toString();
+                return this.properties.put(key, value);
+            case "requestedWidth":
+                this.requestedWidth = Double.parseDouble(value.toString());
+                break;
+            case "requestedHeight":
+                this.requestedHeight = Double.parseDouble(value.toString());
+                break;
+            case "preserveRatio":
+                this.preserveRatio = Boolean.parseBoolean(value.toString());
+                break;
+            case "smooth":
+                this.smooth = Boolean.parseBoolean(value.toString());
+                break;
+            case "backgroundLoading":
+                this.backgroundLoading = Boolean.parseBoolean(value.toString());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown image property " + key);
+            }
+            this.cacheable = false;
+            return this.properties.put(key, value);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return this.properties.entrySet();
+        }
+
+        @Override
+        public Image build() {
+            if (this.cacheable)
+                return getImage(this.url);
+            return new Image(this.url, this.requestedWidth, this.requestedHeight, this.preserveRatio, this.smooth,
+                    this.backgroundLoading);
+        }
+    }
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * @return an estimate of the memory used by a decoded image
+     */
+    private static long __sizeOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    /**
+     * Drop the least recently used images until the cache is back under its memory
+     * bound. The most recent image is always kept. Must be called while holding
+     * the lock.
+     */
+    private static void __evict() {
+        Iterator<Image> it = images.values().iterator();
+        while (imageBytes > maxImageBytes && images.size() > 1) {
+            imageBytes -= __sizeOf(it.next());
+            it.remove();
+        }
+    }
+
+    /**
+     * Find the urls of the images in an fxml file.
+     *
+     * @param path the path of the fxml file
+     * @param urls the list to add the urls to
+     * @throws IOException if the fxml can't be read
+     */
+    private static void __fxmlImages(String path, List<String> urls) throws IOException {
+        URL fxml = MainApp.class.getResource(path);
+        String source;
+        try (InputStream in = fxml.openStream()) {
+            source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        // Resolved the same way the fxml loader does, so they share cache entries
+        Matcher matcher = fxmlImage.matcher(source);
+        while (matcher.find())
+            urls.add(new URL(fxml, matcher.group(1)).toString());
+    }
+
+    /**
+     * @return the thread view preloads run on, starting it the first time
+     */
+    private static synchronized ExecutorService __preloader() {
+        if (preloader == null) {
+            preloader = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "asset-preload");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return preloader;
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Find the urls of the images used by a view. This is every image in its fxml,
+     * plus the images it swaps in while it is shown.
+     *
+     * @param view the view to look up
+     * @return the urls of the images
+     * @throws IOException if the fxml can't be read
+     */
+    public static List<String> getImageUrls(Views view) throws IOException {
+        List<String> urls = new ArrayList<>();
+        __fxmlImages("/fxml/" + view.getFileName() + ".fxml", urls);
+
+        List<String> swapped = new ArrayList<>();
+        switch (view) {
+        case GAMEMODE:
+            swapped.add("/assets/GameMode/practice-bright.png");
+            swapped.add("/assets/GameMode/ranked-bright.png");
+            break;
+        case QUIZ:
+            for (String response : new String[] { "CORRECT", "INCORRECT_2", "INCORRECT_3", "SKIPPED" })
+                swapped.add("/assets/Game-screen/" + response + ".png");
+            for (int i = 0; i <= 100; i += 5)
+                swapped.add("/assets/progressBar/" + i + ".png");
+            for (int i = 0; i <= 4; i++)
+                swapped.add("/assets/wordCount/" + i + ".png");
+            for (int i = 5; i <= 20; i += 5)
+                swapped.add("/assets/Game-screen/scoreIncrease/" + i + ".png");
+            break;
+        case RESULTS:
+            for (String tile : new String[] { "tick", "cross", "skip", "green", "red", "brown" })
+                swapped.add("/assets/Results/" + tile + ".png");
+            break;
+        case SHOP:
+            __fxmlImages("/fxmlComponents/shopAvatar.fxml", urls);
+            for (Avatar avatar : Avatar.values()) {
+                swapped.add("/assets/costumeShop/ShopAvatars/" + avatar + ".png");
+                swapped.add("/assets/costumeShop/Prices/" + avatar + ".png");
+                swapped.add("/assets/Avatars/" + avatar + ".png");
+            }
+            break;
+        case ACHIEVEMENT:
+            __fxmlImages("/fxmlComponents/achievementType.fxml", urls);
+            for (Achievement achievement : Achievement.values()) {
+                for (int level = 1; level <= 5; level++)
+                    swapped.add("/assets/Achievements/Badges/" + achievement.getTypeName() + level + ".png");
+            }
+            break;
+        default:
+            break;
+        }
+        for (String path : swapped) {
+            URL url = MainApp.class.getResource(path);
+            if (url != null)
+                urls.add(url.toExternalForm());
+        }
+        return urls;
+    }
+
+    /**
+     * Get an image, decoding it the first time it is needed. Decoding happens on
+     * the calling thread, so the image is ready to be shown once this returns.
+     *
+     * @param url the url of the image
+     * @return the image
+     */
+    public static Image getImage(String url) {
+        synchronized (AssetCache.class) {
+            Image image = images.get(url);
+            if (image != null)
+                return image;
+        }
+
+        // Decode outside of the lock, so a slow image doesn't hold up the others
+        Image image = new Image(url);
+        if (image.isError())
+            return image; // Don't remember failures, i.e. a missing file
+
+        synchronized (AssetCache.class) {
+            Image existing = images.putIfAbsent(url, image);
+            if (existing != null)
+                return existing;
+            imageBytes += __sizeOf(image);
+            __evict();
+            return image;
+        }
+    }
+
+    /**
+     * Get an image which is bundled with the application.
+     *
+     * @param path the path of the image, i.e. /assets/Results/tick.png
+     * @return the image
+     */
+    public static Image getResourceImage(String path) {
+        return getImage(MainApp.class.getResource(path).toExternalForm());
+    }
+
+    /**
+     * Get a font which is bundled with the application, loading it the first time
+     * it is needed.
+     *
+     * @param path the path of the font, i.e. /styles/fonts/Poppins-Bold.ttf
+     * @param size the size of the font
+     * @return the font, or the default font if it couldn't be loaded
+     */
+    public static synchronized Font getResourceFont(String path, double size) {
+        String key = path + "@" + size;
+        Font font = fonts.get(key);
+        if (font == null) {
+            font = Font.loadFont(MainApp.class.getResource(path).toExternalForm(), size);
+            if (font == null)
+                return Font.getDefault();
+            fonts.put(key, font);
+        }
+        return font;
+    }
+
+    /**
+     * Decode the images used by a view in the background, so they are ready before
+     * the view is shown. Preloads run one at a time on a shared thread, and skip
+     * images which are already in the cache.
+     *
+     * @param view the view to preload
+     */
+    public static void preload(Views view) {
+        __preloader().submit(() -> {
+            try {
+                for (String url : getImageUrls(view)) {
+                    synchronized (AssetCache.class) {
+                        // The start up preload has usually decoded these already
+                        if (images.containsKey(url))
+                            continue;
+                    }
+                    getImage(url);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Unable to preload images for " + view.getFileName() + ": " + e);
+            }
+        });
+    }
+
+    /**
+     * Get a builder factory which builds the images in an fxml file from the cache.
+     * Set it on an fxml loader before loading.
+     *
+     * @return the builder factory
+     */
+    public static BuilderFactory getBuilderFactory() {
+        return type -> (type == Image.class) ? new ImageBuilder() : null;
+    }
+
+}
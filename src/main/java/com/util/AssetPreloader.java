@@ -0,0 +1,122 @@
+package com.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.enums.Views;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+
+/**
+ * Decodes the images and fonts of the heavier views into the asset cache when
+ * the application starts, so they don't stutter the first time they are shown.
+ * The work is spread over a small pool of background threads, and its progress
+ * can be shown on the menu.
+ */
+public class AssetPreloader {
+    //// Constants ////
+    // Leave a core free for the javafx thread
+    private static final int workers = Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() - 1));
+    private static final String[] fonts = { "/styles/fonts/Poppins-Bold.ttf", "/styles/fonts/Poppins-Regular.ttf" };
+    private static final double fontSize = 42;
+
+    //// Properties ////
+    private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(0);
+    private final AtomicInteger done = new AtomicInteger();
+    private ExecutorService pool;
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Count a finished asset towards the progress, shutting down the pool once
+     * everything has been loaded. The progress is read when the update runs, so
+     * updates which run out of order still end at 1.
+     *
+     * @param total the number of assets being loaded
+     */
+    private void __finished(int total) {
+        int count = this.done.incrementAndGet();
+        Platform.runLater(() -> this.progress.set((double) this.done.get() / total));
+        if (count == total)
+            this.pool.shutdown();
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Start loading the assets of some views in the background. Returns straight
+     * away, and may only be called once.
+     *
+     * @param views the views to load the assets of
+     */
+    public synchronized void start(Views... views) {
+        if (this.pool != null)
+            throw new IllegalStateException("Preloading has already started");
+        this.pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "asset-preload");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.pool.submit(() -> {
+            // Reading the fxml is also kept off the javafx thread
+            LinkedHashSet<String> images = new LinkedHashSet<>();
+            for (Views view : views) {
+                try {
+                    images.addAll(AssetCache.getImageUrls(view));
+                } catch (IOException | RuntimeException e) {
+                    // Carry on without them, so the progress still reaches 1
+                    System.err.println("Unable to find assets for " + view.getFileName() + ": " + e);
+                }
+            }
+
+            List<Runnable> tasks = new ArrayList<>();
+            for (String url : images)
+                tasks.add(() -> AssetCache.getImage(url));
+            for (String font : fonts)
+                tasks.add(() -> AssetCache.getResourceFont(font, fontSize));
+
+            int total = tasks.size();
+            if (total == 0) {
+                Platform.runLater(() -> this.progress.set(1));
+                this.pool.shutdown();
+                return;
+            }
+            for (Runnable task : tasks) {
+                this.pool.submit(() -> {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        System.err.println("Unable to preload asset: " + e);
+                    } finally {
+                        this.__finished(total);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * The fraction of assets which have been loaded, from 0 to 1. Only updated on
+     * the javafx thread.
+     *
+     * @return the progress property
+     */
+    public ReadOnlyDoubleProperty progressProperty() {
+        return this.progress.getReadOnlyProperty();
+    }
+
+    /**
+     * @return true once every asset has been loaded
+     */
+    public boolean isDone() {
+        return this.progress.get() >= 1;
+    }
+}
@@ -0,0 +1,156 @@
+package com.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.models.Word;
+
+/**
+ * A word list backed by the raw bytes of a csv file. Opening the list makes a
+ * single pass over the file to find where each row starts, and a row is only
+ * decoded into a {@link Word} when it is requested. This keeps very large word
+ * lists cheap to open, as only the sampled rows are ever turned into strings.
+ * 
+ * The bytes are a copy of the file taken when it is opened, rather than a
+ * mapping of it, as topic files may be edited while the application runs. A
+ * mapping would crash if the file was truncated, and return garbage if it was
+ * rewritten in place, before the repository noticed the change.
+ * 
+ * Rows are parsed as RFC-4180 csv, with the first column being the maori word
+ * and the second the english translation. Quoted fields may contain commas,
+ * newlines and escaped quotes (`""`). The file must be encoded in UTF-8.
+ */
+public class CsvWordList extends WordList {
+    private final ByteBuffer buffer;
+    // Row i spans bytes [starts[i], ends[i])
+    private final int[] starts;
+    private final int[] ends;
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Create a new list from an already indexed buffer.
+     */
+    private CsvWordList(ByteBuffer buffer, int[] starts, int[] ends) {
+        this.buffer = buffer;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Find the end of the csv field starting at a given position.
+     * 
+     * @param pos the first byte of the field
+     * @param end the end of the row
+     * @return the position of the comma ending the field, or end if it is the
+     *         last field in the row
+     */
+    private int __fieldEnd(int pos, int end) {
+        boolean quoted = false;
+        for (; pos < end; pos++) {
+            byte b = this.buffer.get(pos);
+            if (b == '"')
+                quoted = !quoted;
+            else if (b == ',' && !quoted)
+                return pos;
+        }
+        return end;
+    }
+
+    /**
+     * Decode a csv field from UTF-8, removing any quoting.
+     * 
+     * @param from the first byte of the field
+     * @param to   the byte after the end of the field
+     * @return the value of the field
+     */
+    private String __decode(int from, int to) {
+        byte[] bytes = new byte[Integer.max(to - from, 0)];
+        int len = 0;
+        boolean quoted = false;
+        for (int pos = from; pos < to; pos++) {
+            byte b = this.buffer.get(pos);
+            if (b != '"') {
+                bytes[len++] = b;
+            } else if (quoted && pos + 1 < to && this.buffer.get(pos + 1) == '"') {
+                bytes[len++] = '"'; // An escaped quote
+                pos++;
+            } else {
+                quoted = !quoted;
+            }
+        }
+        return new String(bytes, 0, len, StandardCharsets.UTF_8);
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Read a csv file into memory and index its rows. Blank lines are skipped.
+     * 
+     * @param path the csv file to open
+     * @return a list of the words in the file
+     * @throws IOException if the file can't be read, or a row doesn't have two
+     *                     columns
+     */
+    public static CsvWordList open(Path path) throws IOException {
+        // A snapshot, so later edits to the file can't change the rows under us
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+
+        int limit = buffer.limit();
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int rows = 0;
+
+        // Skip the UTF-8 byte order mark if there is one
+        int pos = 0;
+        if (limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF)
+            pos = 3;
+
+        int rowStart = pos;
+        boolean quoted = false;
+        boolean hasComma = false;
+        for (; pos <= limit; pos++) {
+            byte b = (pos < limit) ? buffer.get(pos) : (byte) '\n';
+            if (b == '"') {
+                quoted = !quoted; // An escaped quote toggles twice, so can be ignored here
+            } else if (b == ',' && !quoted) {
+                hasComma = true;
+            } else if (b == '\n' && (!quoted || pos == limit)) {
+                int rowEnd = (pos > rowStart && buffer.get(pos - 1) == '\r') ? pos - 1 : pos;
+                if (rowEnd > rowStart) {
+                    if (!hasComma)
+                        throw new IOException("Unable to parse row " + (rows + 1) + " of " + path + " as csv");
+                    if (rows == starts.length) {
+                        starts = Arrays.copyOf(starts, rows * 2);
+                        ends = Arrays.copyOf(ends, rows * 2);
+                    }
+                    starts[rows] = rowStart;
+                    ends[rows] = rowEnd;
+                    rows++;
+                }
+                rowStart = pos + 1;
+                quoted = false;
+                hasComma = false;
+            }
+        }
+        return new CsvWordList(buffer, Arrays.copyOf(starts, rows), Arrays.copyOf(ends, rows));
+    }
+
+    @Override
+    public int size() {
+        return this.starts.length;
+    }
+
+    @Override
+    public Word get(int i) {
+        int end = this.ends[i];
+        int comma = this.__fieldEnd(this.starts[i], end);
+        String maori = this.__decode(this.starts[i], comma);
+        String english = this.__decode(comma + 1, this.__fieldEnd(comma + 1, end));
+        return new Word(maori, english);
+    }
+}
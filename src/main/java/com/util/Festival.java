@@ -0,0 +1,153 @@
+package com.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A long lived festival process which is kept alive for the whole session.
+ * Commands are written to the stdin of a single `festival --pipe` child, so the
+ * cost of starting festival and loading a voice is only paid once, rather than
+ * for every utterance.
+ */
+public class Festival {
+    //// Constants ////
+    // Printed by festival after each utterance, so we know when speech has ended.
+    private static final String doneMarker = "kemukupu_tts_done";
+
+    //// Properties ////
+    private volatile Process process;
+    private volatile boolean speaking;
+    private Writer stdin;
+    private BufferedReader stdout;
+    private String currentVoice;
+    private Double currentStretch;
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Start the festival process if it is not already running.
+     *
+     * @throws IOException if festival could not be started
+     */
+    private void __ensureStarted() throws IOException {
+        if (this.process != null && this.process.isAlive())
+            return;
+
+        ProcessBuilder builder = new ProcessBuilder("festival", "--pipe");
+        builder.redirectError(ProcessBuilder.Redirect.DISCARD);
+        Process p = builder.start();
+        this.stdin = new OutputStreamWriter(p.getOutputStream(), StandardCharsets.UTF_8);
+        this.stdout = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8));
+        this.currentVoice = null; // A fresh process has no voice loaded
+        this.currentStretch = null;
+        this.process = p;
+    }
+
+    /**
+     * Write a scheme command to festival.
+     *
+     * @param command the command to send
+     * @throws IOException if the pipe to festival has been closed
+     */
+    private void __send(String command) throws IOException {
+        this.stdin.write(command);
+        this.stdin.write('\n');
+        this.stdin.flush();
+    }
+
+    /**
+     * Escape a string so it can be placed inside a scheme string literal.
+     *
+     * @param text the raw text
+     * @return the escaped text
+     */
+    private static String __escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Forcefully kill a process, including any audio players it has spawned.
+     *
+     * @param p the process to kill
+     */
+    private static void __kill(Process p) {
+        p.descendants().forEach(ProcessHandle::destroyForcibly);
+        p.destroyForcibly();
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Speak some text, blocking until festival has finished saying it. The voice
+     * and speed are only sent to festival when they differ from the previous
+     * utterance, so the selected voice stays loaded between words.
+     *
+     * @param text    the text to be spoken
+     * @param voice   the festival voice to use, i.e. `voice_akl_mi_pk06_cg`
+     * @param stretch the duration stretch factor for festival
+     * @return true if the text was spoken, false if speech was cancelled
+     * @throws IOException if unable to communicate with festival
+     */
+    public synchronized boolean say(String text, String voice, double stretch) throws IOException {
+        this.__ensureStarted();
+        Process p = this.process;
+        this.speaking = true;
+        try {
+            if (!voice.equals(this.currentVoice)) {
+                this.__send("(" + voice + ")");
+                this.currentVoice = voice;
+            }
+            if (this.currentStretch == null || this.currentStretch != stretch) {
+                this.__send("(Parameter.set 'Duration_Stretch " + stretch + ")");
+                this.currentStretch = stretch;
+            }
+            this.__send("(SayText \"" + __escape(text) + "\")");
+            this.__send("(print '" + doneMarker + ")");
+
+            // Wait for the utterance to complete
+            for (String l; (l = this.stdout.readLine()) != null;) {
+                if (l.contains(doneMarker))
+                    return true;
+            }
+        } catch (IOException e) {
+            // If we were cancelled the pipe is expected to break
+            if (p.isAlive())
+                throw e;
+        } finally {
+            this.speaking = false;
+        }
+        return false;
+    }
+
+    /**
+     * Immediately stop any speech in progress. Festival is killed along with its
+     * audio player, and is restarted lazily on the next call to say. Does nothing
+     * if festival is idle, so the loaded voice is kept where possible.
+     */
+    public void cancel() {
+        Process p = this.process;
+        if (this.speaking && p != null && p.isAlive())
+            __kill(p);
+    }
+
+    /**
+     * Shut down the festival process, stopping any speech in progress. Should be
+     * called when the application exits.
+     */
+    public void shutdown() {
+        Process p = this.process;
+        if (p == null || !p.isAlive())
+            return;
+        __kill(p);
+        try {
+            p.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.process = null;
+    }
+}
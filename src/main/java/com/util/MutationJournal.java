@@ -0,0 +1,516 @@
+package com.util;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.enums.Achievement;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.models.APIModels.JSONMutation;
+import com.models.APIModels.JSONScores;
+import com.models.APIModels.MutationType;
+import com.models.APIModels.RequestMethod;
+import com.models.APIModels.Response;
+import com.models.APIModels.ResponseStatus;
+
+/**
+ * A durable, append-only journal of changes made to logged in users. Changes
+ * are written to disk before anything is sent, and replayed to the api in order
+ * by a background worker, retrying with backoff while the api can't be reached.
+ * This means a game never has to wait on the network, and no result is lost if
+ * the network is down or the application is closed.
+ *
+ * Each line of the journal is either `+` followed by a json change, or `-`
+ * followed by the sequence number of a change which has been sent.
+ *
+ * Changes belong to an account id rather than a token, as a student gets a new
+ * token each time they sign in. Each change is sent with the newest token known
+ * for its account, falling back to the one it was recorded with.
+ */
+public class MutationJournal {
+    //// Constants ////
+    private static final String journalPath = "./.user/journal.log";
+    // Changes the api rejects this many times are dropped. Server errors aren't
+    // counted, those changes are retried until the api is back
+    private static final int maxAttempts = 5;
+    private static final long initialBackoff = 1000;
+    private static final long maxBackoff = 60_000;
+    private static MutationJournal instance;
+
+    //// Properties ////
+    private final Path path;
+    private final Gson gson = new Gson();
+    private final LinkedHashMap<Long, JSONMutation> pending = new LinkedHashMap<>();
+    private final HashMap<Long, CompletableFuture<Boolean>> results = new HashMap<>();
+    private final HashMap<Long, Integer> attempts = new HashMap<>();
+    // Changes which may have reached the api, even though we never saw a response
+    private final HashSet<Long> maybeSent = new HashSet<>();
+    // The newest token for each account, changes are sent with these
+    private final HashMap<Integer, String> tokens = new HashMap<>();
+    private long nextSeq;
+    private FileChannel channel;
+    private Thread worker;
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Read the changes still waiting to be sent from the journal, then rewrite it
+     * so it only contains those changes. A line which can't be parsed was being
+     * written when the application was closed, so is ignored.
+     *
+     * @throws IOException if the journal can't be read or written
+     */
+    private void __load() throws IOException {
+        Files.createDirectories(this.path.toAbsolutePath().getParent());
+        if (Files.isRegularFile(this.path)) {
+            for (String line : Files.readAllLines(this.path, StandardCharsets.UTF_8)) {
+                try {
+                    if (line.startsWith("+")) {
+                        JSONMutation m = this.gson.fromJson(line.substring(1), JSONMutation.class);
+                        this.pending.put(m.seq, m);
+                        this.nextSeq = Long.max(this.nextSeq, m.seq + 1);
+                    } else if (line.startsWith("-")) {
+                        this.pending.remove(Long.parseLong(line.substring(1)));
+                    }
+                } catch (JsonParseException | NumberFormatException e) {
+                    System.err.println("Skipping damaged journal entry: " + line);
+                }
+            }
+        }
+        for (Long seq : this.pending.keySet())
+            this.results.put(seq, new CompletableFuture<>());
+
+        // Compact the journal, so it doesn't grow forever
+        Path tmp = Files.createTempFile(this.path.toAbsolutePath().getParent(), "journal", ".tmp");
+        try {
+            StringBuilder compacted = new StringBuilder();
+            for (JSONMutation m : this.pending.values())
+                compacted.append('+').append(this.gson.toJson(m)).append('\n');
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                out.write(ByteBuffer.wrap(compacted.toString().getBytes(StandardCharsets.UTF_8)));
+                out.force(true);
+            }
+            Files.move(tmp, this.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        this.channel = FileChannel.open(this.path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Append a line to the journal, waiting until it has reached the disk.
+     *
+     * @param line the line to write
+     * @throws IOException if the journal can't be written
+     */
+    private void __write(String line) throws IOException {
+        ByteBuffer out = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (out.hasRemaining())
+            this.channel.write(out);
+        this.channel.force(false);
+    }
+
+    /**
+     * Remove a change from the journal, along with any changes which depend on it
+     * if it was rejected. Must be called while holding the lock.
+     *
+     * @param m        the change which is finished
+     * @param accepted whether the api accepted the change
+     * @param finished collects the results to complete once the lock is released
+     */
+    private void __finish(JSONMutation m, boolean accepted, HashMap<CompletableFuture<Boolean>, Boolean> finished) {
+        try {
+            this.__write("-" + m.seq);
+        } catch (IOException e) {
+            // It will be sent again next time, which the api tolerates
+            System.err.println("Unable to update journal: " + e);
+        }
+        this.pending.remove(m.seq);
+        this.attempts.remove(m.seq);
+        this.maybeSent.remove(m.seq);
+        CompletableFuture<Boolean> result = this.results.remove(m.seq);
+        if (result != null)
+            finished.put(result, accepted);
+
+        if (!accepted) {
+            List<JSONMutation> dependents = new ArrayList<>();
+            for (JSONMutation other : this.pending.values()) {
+                if (other.after != null && other.after == m.seq)
+                    dependents.add(other);
+            }
+            for (JSONMutation other : dependents)
+                this.__finish(other, false, finished);
+        }
+
+        if (this.pending.isEmpty()) {
+            try {
+                this.channel.truncate(0);
+            } catch (IOException e) {
+                System.err.println("Unable to compact journal: " + e);
+            }
+        }
+    }
+
+    /**
+     * Wait for the next changes to send. Consecutive achievements are returned
+     * together so they can be sent at once, anything else is sent on its own.
+     *
+     * @return the changes to send
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private synchronized List<JSONMutation> __nextBatch() throws InterruptedException {
+        while (this.pending.isEmpty())
+            this.wait();
+
+        List<JSONMutation> batch = new ArrayList<>();
+        for (JSONMutation m : this.pending.values()) {
+            if (!batch.isEmpty() && (m.type != MutationType.Achievement || !__sameAccount(m, batch.get(0))))
+                break;
+            batch.add(m);
+            if (m.type != MutationType.Achievement)
+                break;
+        }
+        return batch;
+    }
+
+    /**
+     * @return true if both changes were made to the same account
+     */
+    private static boolean __sameAccount(JSONMutation a, JSONMutation b) {
+        // Only changes from before accounts were tracked by id lack one
+        if (a.usr_id == null || b.usr_id == null)
+            return a.usr_id == null && b.usr_id == null && a.token.equals(b.token);
+        return a.usr_id.equals(b.usr_id);
+    }
+
+    /**
+     * @return the token to send a change with
+     */
+    private synchronized String __tokenFor(JSONMutation m) {
+        String token = (m.usr_id != null) ? this.tokens.get(m.usr_id) : null;
+        return (token != null) ? token : m.token;
+    }
+
+    /**
+     * Check whether a score which may already have reached the api has been added,
+     * by comparing the number of scores the account has with the number it had
+     * before the score was sent.
+     *
+     * @param m     the score to check
+     * @param token the token to make the request with
+     * @return true if the score has already been added
+     * @throws IOException if unable to contact the api
+     */
+    private static boolean __alreadyScored(JSONMutation m, String token) throws IOException {
+        if (m.usr_id == null || m.expected_scores == null)
+            return false;
+        Response res = API.makeRequest(RequestMethod.Get, "/scores?id=" + m.usr_id, null, token);
+        if (res.getStatus() != ResponseStatus.Success)
+            return false;
+        JSONScores scores = new Gson().fromJson(res.getBody(), JSONScores.class);
+        return scores.data.size() > m.expected_scores;
+    }
+
+    /**
+     * Send a change to the api.
+     *
+     * @param m     the change to send
+     * @param token the token to send it with
+     * @return a future which completes with the api response
+     * @throws IOException if the change is invalid
+     */
+    private static CompletableFuture<Response> __send(JSONMutation m, String token) throws IOException {
+        switch (m.type) {
+        case Score:
+            return API.makeRequestAsync(RequestMethod.Post, "/scores",
+                    "{\"score\":" + m.score + ",\"num_stars\":" + m.num_stars + "}", token);
+        case Achievement:
+            return API.makeRequestAsync(RequestMethod.Post, "/student/achievement",
+                    "{\"name\":\"" + Achievement.toString(m.name) + "\"}", token);
+        case Costume:
+            return API.makeRequestAsync(RequestMethod.Post, "/student/costumes", "{\"name\":\"" + m.name + "\"}",
+                    token);
+        case Avatar:
+            return API.makeRequestAsync(RequestMethod.Post, "/student/" + m.name.replace("\"", "\\\""), "", token);
+        default:
+            throw new IOException("Unknown change type " + m.type);
+        }
+    }
+
+    /**
+     * Check whether a failure happened before the request could have reached the
+     * api, in which case it is always safe to send again.
+     *
+     * @param e the failure
+     * @return true if the request was definitely not sent
+     */
+    private static boolean __notSent(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof HttpConnectTimeoutException
+                    || t instanceof UnknownHostException)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Send a batch of changes, recording the outcome of each.
+     *
+     * @param batch the changes to send
+     * @return true if any change needs to be retried
+     * @throws InterruptedException if interrupted while waiting on the api
+     */
+    private boolean __replay(List<JSONMutation> batch) throws InterruptedException {
+        boolean retry = false;
+        HashMap<CompletableFuture<Boolean>, Boolean> finished = new HashMap<>();
+
+        // Start every request before waiting on any of them
+        List<CompletableFuture<Response>> requests = new ArrayList<>();
+        for (JSONMutation m : batch) {
+            CompletableFuture<Response> request;
+            String token = this.__tokenFor(m);
+            try {
+                if (m.type == MutationType.Score && this.__wasMaybeSent(m) && __alreadyScored(m, token))
+                    request = CompletableFuture.completedFuture(null);
+                else
+                    request = __send(m, token);
+            } catch (IOException e) {
+                request = CompletableFuture.failedFuture(e);
+            }
+            requests.add(request);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            JSONMutation m = batch.get(i);
+            try {
+                Response res = requests.get(i).get();
+                synchronized (this) {
+                    if (!this.pending.containsKey(m.seq))
+                        continue; // Discarded while we were sending it
+                    if (res == null || res.getStatus() == ResponseStatus.Success) {
+                        this.__finish(m, true, finished);
+                    } else if (!res.isRejected()) {
+                        // i.e. the api is down, keep the change until it is back
+                        retry = true;
+                    } else if (this.maybeSent.contains(m.seq)) {
+                        // The api refused a duplicate, so our earlier attempt did reach it
+                        this.__finish(m, true, finished);
+                    } else if (this.attempts.merge(m.seq, 1, Integer::sum) >= maxAttempts) {
+                        System.err.println("Api rejected change " + m.seq + ": " + res.getBody());
+                        this.__finish(m, false, finished);
+                    } else {
+                        retry = true;
+                    }
+                }
+            } catch (ExecutionException e) {
+                synchronized (this) {
+                    if (!(e.getCause() instanceof IOException)) {
+                        System.err.println("Unable to send change " + m.seq + ": " + e.getCause());
+                        this.__finish(m, false, finished);
+                        continue;
+                    }
+                    if (!__notSent(e.getCause()))
+                        this.maybeSent.add(m.seq);
+                    retry = true;
+                }
+            }
+        }
+
+        // Complete results outside of the lock, as they may call back into the journal
+        finished.forEach((result, accepted) -> result.complete(accepted));
+        return retry;
+    }
+
+    /**
+     * @return true if an earlier attempt to send this change may have reached the
+     *         api
+     */
+    private synchronized boolean __wasMaybeSent(JSONMutation m) {
+        return this.maybeSent.contains(m.seq);
+    }
+
+    /**
+     * The body of the replay worker thread. Sends changes in order, backing off
+     * exponentially while the api can't be reached.
+     */
+    private void __run() {
+        long backoff = initialBackoff;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (this.__replay(this.__nextBatch())) {
+                    Thread.sleep(backoff);
+                    backoff = Long.min(backoff * 2, maxBackoff);
+                } else {
+                    backoff = initialBackoff;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                // Keep the worker alive, the change will be tried again
+                e.printStackTrace();
+            }
+        }
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Open a journal, restoring any changes which were not sent last time.
+     *
+     * @param path   the journal file
+     * @param replay whether to start sending changes to the api
+     * @throws IOException if the journal can't be read or written
+     */
+    public MutationJournal(Path path, boolean replay) throws IOException {
+        this.path = path;
+        this.__load();
+        if (replay) {
+            this.worker = new Thread(this::__run, "journal-replay");
+            this.worker.setDaemon(true);
+            this.worker.start();
+        }
+    }
+
+    /**
+     * Get the journal shared by the application, opening it if needed.
+     *
+     * @return the journal
+     * @throws IOException if the journal can't be read or written
+     */
+    public static synchronized MutationJournal get() throws IOException {
+        if (instance == null)
+            instance = new MutationJournal(Paths.get(journalPath), true);
+        return instance;
+    }
+
+    /**
+     * Use a different journal for the application, i.e. one in a temporary
+     * directory, so tests never touch the changes queued on this computer.
+     *
+     * @param journal the journal to use
+     */
+    public static synchronized void use(MutationJournal journal) {
+        instance = journal;
+    }
+
+    /**
+     * Record a change, which will be sent to the api in the background. The change
+     * has reached the disk by the time this returns.
+     *
+     * @param m the change to record, its sequence number is assigned here
+     * @return a future which completes with true once the api has accepted the
+     *         change, or false if it was rejected
+     * @throws IOException if the journal can't be written
+     */
+    public synchronized CompletableFuture<Boolean> append(JSONMutation m) throws IOException {
+        m.seq = this.nextSeq++;
+        this.__write("+" + this.gson.toJson(m));
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        this.pending.put(m.seq, m);
+        this.results.put(m.seq, result);
+        this.notifyAll();
+        return result;
+    }
+
+    /**
+     * Send an account's changes with a new token from now on, i.e. once the student
+     * has signed in again, including any recorded with an older token.
+     *
+     * @param account the id of the account
+     * @param token   the account's current token
+     */
+    public synchronized void setToken(int account, String token) {
+        this.tokens.put(account, token);
+    }
+
+    /**
+     * Get the changes to an account which are yet to be accepted by the api.
+     *
+     * @param account the id of the account
+     * @return the changes, in the order they were made
+     */
+    public synchronized List<JSONMutation> getPending(Integer account) {
+        List<JSONMutation> changes = new ArrayList<>();
+        for (JSONMutation m : this.pending.values()) {
+            if (Objects.equals(m.usr_id, account))
+                changes.add(m);
+        }
+        return changes;
+    }
+
+    /**
+     * Get the result of a change which is yet to be accepted by the api.
+     *
+     * @param seq the sequence number of the change
+     * @return a future which completes with true once the api has accepted the
+     *         change, or false if it was rejected, or null if the change is not
+     *         pending
+     */
+    public synchronized CompletableFuture<Boolean> getResult(long seq) {
+        return this.results.get(seq);
+    }
+
+    /**
+     * Throw away every pending change to an account, i.e. once it has been deleted
+     * or reset. Their results are cancelled.
+     *
+     * @param account the id of the account
+     */
+    public void discard(Integer account) {
+        List<CompletableFuture<Boolean>> cancelled = new ArrayList<>();
+        synchronized (this) {
+            Iterator<JSONMutation> it = this.pending.values().iterator();
+            while (it.hasNext()) {
+                JSONMutation m = it.next();
+                if (!Objects.equals(m.usr_id, account))
+                    continue;
+                try {
+                    this.__write("-" + m.seq);
+                } catch (IOException e) {
+                    System.err.println("Unable to update journal: " + e);
+                }
+                it.remove();
+                this.attempts.remove(m.seq);
+                this.maybeSent.remove(m.seq);
+                CompletableFuture<Boolean> result = this.results.remove(m.seq);
+                if (result != null)
+                    cancelled.add(result);
+            }
+        }
+        for (CompletableFuture<Boolean> result : cancelled)
+            result.cancel(false);
+    }
+
+    /**
+     * Stop sending changes and close the journal. Anything not yet sent will be
+     * sent the next time the journal is opened.
+     */
+    public synchronized void shutdown() {
+        if (this.worker != null)
+            this.worker.interrupt();
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
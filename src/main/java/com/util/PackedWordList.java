@@ -0,0 +1,231 @@
+package com.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import com.models.Word;
+
+/**
+ * A word list read from a pre-compiled binary topic pack. Packs are built from
+ * a topic csv the first time it is used, after which opening the topic only
+ * needs to read the header, and each word is read directly from its offset.
+ *
+ * Pack layout (all integers big-endian):
+ * - header: magic, version, source size, source modified time, source crc32,
+ *   word count
+ * - maori offset table: count + 1 ints, word i spans [off[i], off[i + 1])
+ * - english offset table: count + 1 ints
+ * - UTF-8 bytes of every maori word, then of every english word
+ */
+public class PackedWordList extends WordList {
+    //// Constants ////
+    private static final int magic = 0x4B4B5750; // "KKWP"
+    private static final int version = 1;
+    private static final int headerSize = 4 + 4 + 8 + 8 + 8 + 4;
+
+    //// Properties ////
+    private final MappedByteBuffer buffer;
+    private final int count;
+
+    //// Private (Helper) Methods ////
+
+    private PackedWordList(MappedByteBuffer buffer, int count) {
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    /**
+     * Calculate the crc32 checksum of a file.
+     *
+     * @param path the file to checksum
+     * @return the checksum
+     * @throws IOException if the file can't be read
+     */
+    private static long __checksum(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Write a pack to a temporary file and move it into place, so a partially
+     * written pack is never read, and a pack which is already open is left as it
+     * was.
+     *
+     * @param pack where the pack should be written
+     * @param out  the content of the pack
+     * @throws IOException if the pack can't be written
+     */
+    private static void __writeAtomic(Path pack, ByteBuffer out) throws IOException {
+        Files.createDirectories(pack.getParent());
+        Path tmp = Files.createTempFile(pack.getParent(), "pack", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining())
+                    channel.write(out);
+            }
+            Files.move(tmp, pack, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Record a new size and modification time in a pack whose source is otherwise
+     * unchanged, i.e. after it was touched or copied, so the next check doesn't
+     * have to checksum the csv again.
+     *
+     * @param pack     the pack to update
+     * @param size     the size of the source
+     * @param modified the modification time of the source
+     * @throws IOException if the pack can't be read or written
+     */
+    private static void __restamp(Path pack, long size, long modified) throws IOException {
+        ByteBuffer out = ByteBuffer.wrap(Files.readAllBytes(pack));
+        out.putLong(8, size).putLong(16, modified);
+        __writeAtomic(pack, out);
+    }
+
+    /**
+     * Read the string stored between two entries of an offset table.
+     *
+     * @param table the position of the offset table
+     * @param i     the index of the string
+     * @return the decoded string
+     */
+    private String __read(int table, int i) {
+        int from = this.buffer.getInt(table + i * 4);
+        int to = this.buffer.getInt(table + (i + 1) * 4);
+        byte[] bytes = new byte[to - from];
+        for (int j = 0; j < bytes.length; j++)
+            bytes[j] = this.buffer.get(from + j);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Check whether a pack was built from the current version of its source csv.
+     * The size and modification time are checked first, and only if they differ is
+     * the csv read to compare checksums. If the checksum still matches, the pack
+     * is updated with the new size and modification time.
+     *
+     * @param pack   the compiled pack
+     * @param source the csv the pack was built from
+     * @return true if the pack can be used, false if it must be rebuilt
+     * @throws IOException if the source can't be read
+     */
+    public static boolean isCurrent(Path pack, Path source) throws IOException {
+        if (!Files.isRegularFile(pack))
+            return false;
+
+        ByteBuffer header = ByteBuffer.allocate(headerSize);
+        try (FileChannel channel = FileChannel.open(pack, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0)
+                ;
+        }
+        if (header.hasRemaining() || header.getInt(0) != magic || header.getInt(4) != version)
+            return false;
+
+        long size = Files.size(source);
+        long modified = Files.getLastModifiedTime(source).toMillis();
+        if (header.getLong(8) == size && header.getLong(16) == modified)
+            return true;
+        if (header.getLong(24) != __checksum(source))
+            return false;
+        __restamp(pack, size, modified);
+        return true;
+    }
+
+    /**
+     * Compile a csv topic file into a pack. The pack is written to a temporary file
+     * and moved into place, so a partially written pack is never read.
+     *
+     * @param source the csv topic file
+     * @param pack   where the pack should be written
+     * @throws IOException if the csv can't be parsed, or the pack can't be written
+     */
+    public static void compile(Path source, Path pack) throws IOException {
+        long size = Files.size(source);
+        long modified = Files.getLastModifiedTime(source).toMillis();
+        long checksum = __checksum(source);
+        WordList words = CsvWordList.open(source);
+        int n = words.size();
+
+        byte[][] maori = new byte[n][];
+        byte[][] english = new byte[n][];
+        long total = headerSize + 8L * (n + 1);
+        for (int i = 0; i < n; i++) {
+            Word w = words.get(i);
+            maori[i] = w.getMaori().getBytes(StandardCharsets.UTF_8);
+            english[i] = w.getEnglish().getBytes(StandardCharsets.UTF_8);
+            total += maori[i].length + english[i].length;
+        }
+        if (total > Integer.MAX_VALUE)
+            throw new IOException("Topic is too large to pack: " + source);
+
+        ByteBuffer out = ByteBuffer.allocate((int) total);
+        out.putInt(magic).putInt(version).putLong(size).putLong(modified).putLong(checksum).putInt(n);
+        int offset = headerSize + 8 * (n + 1);
+        for (byte[][] column : new byte[][][] { maori, english }) {
+            for (int i = 0; i < n; i++) {
+                out.putInt(offset);
+                offset += column[i].length;
+            }
+            out.putInt(offset);
+        }
+        for (int i = 0; i < n; i++)
+            out.put(maori[i]);
+        for (int i = 0; i < n; i++)
+            out.put(english[i]);
+        out.flip();
+        __writeAtomic(pack, out);
+    }
+
+    /**
+     * Open a compiled pack. Only the header is read, words are read as they are
+     * requested.
+     *
+     * @param pack the pack to open
+     * @return the words in the pack
+     * @throws IOException if the pack can't be read or is invalid
+     */
+    public static PackedWordList open(Path pack) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(pack, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.limit() < headerSize || buffer.getInt(0) != magic || buffer.getInt(4) != version)
+            throw new IOException("Invalid topic pack: " + pack);
+
+        int count = buffer.getInt(32);
+        long tablesEnd = headerSize + 8L * (count + 1);
+        if (count < 0 || tablesEnd > buffer.limit() || buffer.getInt((int) tablesEnd - 4) > buffer.limit())
+            throw new IOException("Truncated topic pack: " + pack);
+        return new PackedWordList(buffer, count);
+    }
+
+    @Override
+    public int size() {
+        return this.count;
+    }
+
+    @Override
+    public Word get(int i) {
+        if (i < 0 || i >= this.count)
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + this.count);
+        int maoriTable = headerSize;
+        int englishTable = headerSize + 4 * (this.count + 1);
+        return new Word(this.__read(maoriTable, i), this.__read(englishTable, i));
+    }
+}
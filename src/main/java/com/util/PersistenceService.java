@@ -0,0 +1,139 @@
+package com.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes data to the disk on a background thread, so a slow disk never stalls
+ * the ui. Writes are debounced, many changes in quick succession are coalesced
+ * into a single write once things have been quiet for a moment.
+ */
+public class PersistenceService {
+    //// Constants ////
+    // How long to wait after the last change before writing
+    private static final long quietPeriod = 250;
+    // The longest a change may wait, even if more changes keep arriving
+    private static final long maxDelay = 2000;
+    private static PersistenceService instance;
+
+    //// Properties ////
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "persistence");
+        t.setDaemon(true);
+        return t;
+    });
+    private final HashMap<String, Task> pending = new HashMap<>();
+    private final HashMap<String, ScheduledFuture<?>> timers = new HashMap<>();
+    private final HashMap<String, Long> firstScheduled = new HashMap<>();
+
+    /**
+     * A write to the disk.
+     */
+    public interface Task {
+        void run() throws IOException;
+    }
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Run a write, reporting any failure.
+     *
+     * @param task the write to run
+     */
+    private static void __run(Task task) {
+        try {
+            task.run();
+        } catch (IOException e) {
+            System.err.println("Unable to save to disk: " + e);
+        }
+    }
+
+    /**
+     * Run the pending write for a key, once its quiet period has passed.
+     *
+     * @param key the key to write
+     */
+    private void __runPending(String key) {
+        Task task;
+        synchronized (this) {
+            task = this.pending.remove(key);
+            this.timers.remove(key);
+            this.firstScheduled.remove(key);
+        }
+        if (task != null)
+            __run(task);
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Get the persistence service shared by the application.
+     *
+     * @return the persistence service
+     */
+    public static synchronized PersistenceService get() {
+        if (instance == null)
+            instance = new PersistenceService();
+        return instance;
+    }
+
+    /**
+     * Schedule a write. If a write for the same key is already waiting it is
+     * replaced, so only the latest data is written.
+     *
+     * @param key  identifies what is being written, i.e. the file name
+     * @param task the write, this should only use data captured when it was
+     *             scheduled, as it runs on another thread
+     */
+    public synchronized void schedule(String key, Task task) {
+        long now = System.currentTimeMillis();
+        long first = this.firstScheduled.computeIfAbsent(key, k -> now);
+        long delay = Long.max(0, Long.min(quietPeriod, first + maxDelay - now));
+
+        this.pending.put(key, task);
+        ScheduledFuture<?> timer = this.timers.remove(key);
+        if (timer != null)
+            timer.cancel(false);
+        this.timers.put(key, this.executor.schedule(() -> this.__runPending(key), delay, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Write everything which is waiting immediately, blocking until it is on the
+     * disk.
+     */
+    public void flush() {
+        List<Task> tasks;
+        synchronized (this) {
+            for (ScheduledFuture<?> timer : this.timers.values())
+                timer.cancel(false);
+            tasks = new ArrayList<>(this.pending.values());
+            this.pending.clear();
+            this.timers.clear();
+            this.firstScheduled.clear();
+        }
+        try {
+            // Run on the executor, so we also wait for any write already in progress
+            this.executor.submit(() -> tasks.forEach(PersistenceService::__run)).get();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write everything which is waiting and stop the background thread. Should be
+     * called when the application exits.
+     */
+    public void shutdown() {
+        this.flush();
+        this.executor.shutdown();
+    }
+}
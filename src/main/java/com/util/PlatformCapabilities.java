@@ -0,0 +1,126 @@
+package com.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * What the platform we are running on is able to do. The platform is probed
+ * once, in the background, and the results are kept for the rest of the
+ * application, so checking them never touches the disk.
+ */
+public class PlatformCapabilities {
+    //// Properties ////
+    private static CompletableFuture<PlatformCapabilities> probe;
+    private final String distribution;
+    private final boolean mp3Supported;
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Loads information from the underlying OS, acquiring the exact linux
+     * distribution we are running on. Modified from:
+     * https://stackoverflow.com/questions/15018474/getting-linux-distro-from-java
+     *
+     * @return a string representing the distribution, empty if unknown
+     */
+    private static String __readDistribution() {
+        // lists all the files ending with -release in the etc folder
+        File dir = new File("/etc/");
+        File fileList[] = new File[0];
+        if (dir.exists()) {
+            File[] releases = dir.listFiles((d, filename) -> filename.endsWith("-release"));
+            if (releases != null)
+                fileList = releases;
+        }
+        // looks for the version file (not all linux distros)
+        File fileVersion = new File("/proc/version");
+        if (fileVersion.exists()) {
+            fileList = Arrays.copyOf(fileList, fileList.length + 1);
+            fileList[fileList.length - 1] = fileVersion;
+        }
+        // searches all the version-related files
+        for (File f : fileList) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(f))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.contains("PRETTY_NAME="))
+                        return line.substring(12, line.length() - 1).toLowerCase();
+                }
+            } catch (IOException e) {
+                System.err.println("Unable to read " + f + ": " + e.getMessage());
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Work out the capabilities of a distribution.
+     *
+     * @param distribution the name of the distribution, in lower case
+     */
+    private PlatformCapabilities(String distribution) {
+        this.distribution = distribution;
+        // HACK: Ubuntu does not support playing of .mp3s! Is an imcompatability with
+        // javafx 8. This is unlikely to be fixed in the future, and only updating to a
+        // newer version of javafx will fix it.
+        // See https://github.com/javafxports/openjdk-jfx/issues/331 for more
+        // information.
+        this.mp3Supported = !distribution.contains("ubuntu");
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Start probing the platform in the background, if it hasn't been already.
+     * Should be called early on, so the results are ready when first needed.
+     *
+     * @return a future which completes with the capabilities
+     */
+    public static synchronized CompletableFuture<PlatformCapabilities> probe() {
+        if (probe == null) {
+            probe = CompletableFuture.supplyAsync(() -> new PlatformCapabilities(__readDistribution()), r -> {
+                Thread t = new Thread(r, "platform-probe");
+                t.setDaemon(true);
+                t.start();
+            });
+            probe.thenAccept(capabilities -> System.err.println("Probed " + capabilities
+                    + (capabilities.isMp3Supported() ? "" : ", music is disabled")));
+        }
+        return probe;
+    }
+
+    /**
+     * Get the capabilities of this platform, waiting for the probe to finish if it
+     * is still running. Shouldn't be called from the javafx thread, use probe
+     * there instead.
+     *
+     * @return the capabilities
+     */
+    public static PlatformCapabilities get() {
+        return probe().join();
+    }
+
+    /**
+     * @return the name of the linux distribution, empty if it isn't known
+     */
+    public String getDistribution() {
+        return this.distribution;
+    }
+
+    /**
+     * @return true if mp3 files can be played
+     */
+    public boolean isMp3Supported() {
+        return this.mp3Supported;
+    }
+
+    @Override
+    public String toString() {
+        return "platform: " + (this.distribution.isEmpty() ? "unknown" : this.distribution) + ", mp3 supported: "
+                + this.mp3Supported;
+    }
+}
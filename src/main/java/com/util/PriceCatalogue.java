@@ -0,0 +1,236 @@
+package com.util;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.enums.Avatar;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.models.APIModels.JSONCostume;
+import com.models.APIModels.JSONCostumeSnapshot;
+import com.models.APIModels.JSONCostumes;
+
+/**
+ * A locally cached copy of the costume prices. Prices are always answered from
+ * memory, and refreshed from the api in the background once they are older
+ * than the time to live. Refreshes are conditional, so an unchanged catalogue
+ * costs only an empty 304 response. The last good catalogue is saved to disk,
+ * so prices are available immediately on the next launch, even when offline.
+ */
+public class PriceCatalogue {
+    //// Constants ////
+    private static final String path = "/costume";
+    private static final int snapshotVersion = 1;
+    // How long to wait before trying again after a failed refresh
+    private static final Duration retryDelay = Duration.ofSeconds(30);
+
+    //// Properties ////
+    private final Fetcher fetcher;
+    private final Duration ttl;
+    private final Path snapshot;
+    private volatile Map<Avatar, Integer> prices;
+    private volatile String etag;
+    private volatile String lastModified;
+    private volatile long fetchedAt; // Milliseconds since the epoch, 0 if never fetched
+    private volatile long retryAt;
+    private CompletableFuture<Void> refreshing;
+
+    /**
+     * Makes the conditional request for the catalogue, i.e. to the api.
+     */
+    public interface Fetcher {
+        CompletableFuture<HttpResponse<String>> fetch(String path, String etag, String lastModified);
+    }
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Convert a list of costumes from the api into a price lookup. Any avatar the
+     * api doesn't mention keeps its current price.
+     *
+     * @param costumes the costumes to convert
+     * @return the new prices
+     */
+    private Map<Avatar, Integer> __toPrices(List<JSONCostume> costumes) {
+        HashMap<Avatar, Integer> update = new HashMap<>();
+        for (JSONCostume costume : costumes) {
+            Avatar avatar = Avatar.fromString(costume.name);
+            if (!update.containsKey(avatar) && costume.price != null)
+                update.put(avatar, costume.price);
+        }
+        for (Map.Entry<Avatar, Integer> entry : this.prices.entrySet())
+            update.putIfAbsent(entry.getKey(), entry.getValue());
+        return Map.copyOf(update);
+    }
+
+    /**
+     * Load the last saved catalogue from disk, if there is one. A missing or
+     * unreadable snapshot leaves the current prices untouched.
+     */
+    private void __loadSnapshot() {
+        if (!Files.isRegularFile(this.snapshot))
+            return;
+        try {
+            String json = new String(Files.readAllBytes(this.snapshot), StandardCharsets.UTF_8);
+            JSONCostumeSnapshot saved = new Gson().fromJson(json, JSONCostumeSnapshot.class);
+            if (saved == null || saved.version != snapshotVersion || saved.data == null)
+                return;
+            this.prices = this.__toPrices(saved.data);
+            this.etag = saved.etag;
+            this.lastModified = saved.lastModified;
+            this.fetchedAt = saved.fetchedAt;
+        } catch (IOException | JsonParseException e) {
+            System.err.println("Unable to load saved prices, using defaults: " + e);
+        }
+    }
+
+    /**
+     * Save the current catalogue to disk. The snapshot is written to a temporary
+     * file and moved into place, so a partially written snapshot is never read.
+     *
+     * @throws IOException if the snapshot can't be written
+     */
+    private void __saveSnapshot() throws IOException {
+        JSONCostumeSnapshot saved = new JSONCostumeSnapshot();
+        saved.version = snapshotVersion;
+        saved.etag = this.etag;
+        saved.lastModified = this.lastModified;
+        saved.fetchedAt = this.fetchedAt;
+        saved.data = new ArrayList<>();
+        for (Map.Entry<Avatar, Integer> entry : this.prices.entrySet()) {
+            JSONCostume costume = new JSONCostume();
+            costume.name = entry.getKey().toString();
+            costume.price = entry.getValue();
+            saved.data.add(costume);
+        }
+
+        Files.createDirectories(this.snapshot.toAbsolutePath().getParent());
+        Path tmp = Files.createTempFile(this.snapshot.toAbsolutePath().getParent(), "prices", ".tmp");
+        try {
+            Files.write(tmp, new Gson().toJson(saved).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, this.snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Update the catalogue from an api response.
+     *
+     * @param res the response to the conditional request
+     */
+    private void __apply(HttpResponse<String> res) {
+        int status = res.statusCode();
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            this.fetchedAt = System.currentTimeMillis();
+        } else if (200 <= status && status <= 299) {
+            JSONCostumes costumes = new Gson().fromJson(res.body(), JSONCostumes.class);
+            if (costumes == null || costumes.data == null)
+                throw new JsonParseException("No costumes in response");
+            this.prices = this.__toPrices(costumes.data);
+            this.etag = res.headers().firstValue("ETag").orElse(null);
+            this.lastModified = res.headers().firstValue("Last-Modified").orElse(null);
+            this.fetchedAt = System.currentTimeMillis();
+        } else {
+            throw new CompletionException(new IOException("Unable to refresh prices, status " + status));
+        }
+
+        try {
+            this.__saveSnapshot();
+        } catch (IOException e) {
+            // The prices are still usable, they just won't survive a restart
+            System.err.println("Unable to save prices: " + e);
+        }
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Create a catalogue, starting from the saved snapshot if there is one, or the
+     * default prices otherwise. No requests are made until prices are needed.
+     *
+     * @param defaults the prices to use if there is no snapshot
+     * @param ttl      how long fetched prices are used before being refreshed
+     * @param snapshot where the last good catalogue is saved
+     */
+    public PriceCatalogue(Map<Avatar, Integer> defaults, Duration ttl, Path snapshot) {
+        this(defaults, ttl, snapshot, API::getConditionalAsync);
+    }
+
+    /**
+     * Create a catalogue which fetches its prices from somewhere other than the
+     * api, i.e. for testing.
+     *
+     * @param defaults the prices to use if there is no snapshot
+     * @param ttl      how long fetched prices are used before being refreshed
+     * @param snapshot where the last good catalogue is saved
+     * @param fetcher  makes the requests for the catalogue
+     */
+    public PriceCatalogue(Map<Avatar, Integer> defaults, Duration ttl, Path snapshot, Fetcher fetcher) {
+        this.fetcher = fetcher;
+        this.prices = Map.copyOf(defaults);
+        this.ttl = ttl;
+        this.snapshot = snapshot;
+        this.__loadSnapshot();
+    }
+
+    /**
+     * Get the price of an avatar. This never blocks, if the prices are out of date
+     * the cached price is returned and a refresh is started in the background.
+     *
+     * @param avatar the avatar to price
+     * @return the price of the avatar in stars
+     */
+    public Integer get(Avatar avatar) {
+        if (this.isStale())
+            this.refresh();
+        return this.prices.get(avatar);
+    }
+
+    /**
+     * @return true if the prices are older than the time to live, and a refresh
+     *         should be attempted
+     */
+    public boolean isStale() {
+        long now = System.currentTimeMillis();
+        return now - this.fetchedAt >= this.ttl.toMillis() && now >= this.retryAt;
+    }
+
+    /**
+     * Refresh the prices from the api in the background. Only one refresh runs at a
+     * time, calling this while a refresh is in progress returns the same future.
+     *
+     * @return a future which completes once the prices are up to date, or
+     *         exceptionally if the api could not be reached
+     */
+    public synchronized CompletableFuture<Void> refresh() {
+        if (this.refreshing != null)
+            return this.refreshing;
+
+        CompletableFuture<Void> refresh = this.fetcher.fetch(path, this.etag, this.lastModified)
+                .thenAccept(this::__apply);
+        this.refreshing = refresh;
+        refresh.whenComplete((res, e) -> {
+            synchronized (this) {
+                this.refreshing = null;
+            }
+            if (e != null) {
+                this.retryAt = System.currentTimeMillis() + retryDelay.toMillis();
+                System.err.println("Unable to refresh prices: " + e.getCause());
+            }
+        });
+        return refresh;
+    }
+}
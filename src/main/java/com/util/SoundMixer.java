@@ -0,0 +1,220 @@
+package com.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+import com.enums.SoundPriority;
+
+/**
+ * Decides which sound effects are allowed to play. Each effect may have a
+ * cooldown, so repeating it in quick succession only plays it once, and only a
+ * limited number of effects play at once. When that limit is reached, the
+ * oldest of the least important effects is cut off to make room, unless
+ * everything playing is more important than the new effect, in which case it
+ * is dropped. The most important effects are therefore never starved. Every
+ * dropped or cut off effect is counted.
+ */
+public class SoundMixer {
+    //// Properties ////
+    private final int maxVoices;
+    private final LongSupplier clock; // Nanoseconds
+    private final HashMap<String, Effect> effects = new HashMap<>();
+    private final HashMap<String, Long> lastPlayed = new HashMap<>();
+    // Ordered from oldest to newest
+    private final List<Voice> voices = new ArrayList<>();
+    private final HashMap<String, Integer> dropped = new HashMap<>();
+    private final HashMap<String, Integer> cutOff = new HashMap<>();
+
+    /**
+     * Something which can play a sound effect, i.e. an audio clip.
+     */
+    public interface Channel {
+        void play();
+
+        void stop();
+
+        boolean isPlaying();
+    }
+
+    /**
+     * How an effect should be mixed.
+     */
+    private static class Effect {
+        private final SoundPriority priority;
+        private final long cooldown; // Nanoseconds
+
+        private Effect(SoundPriority priority, long cooldown) {
+            this.priority = priority;
+            this.cooldown = cooldown;
+        }
+    }
+
+    /**
+     * An effect which is currently playing.
+     */
+    private static class Voice {
+        private final String sound;
+        private final SoundPriority priority;
+        private final Channel channel;
+
+        private Voice(String sound, SoundPriority priority, Channel channel) {
+            this.sound = sound;
+            this.priority = priority;
+            this.channel = channel;
+        }
+    }
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * @return the least important voice, the oldest one if there are several
+     */
+    private Voice __quietest() {
+        Voice quietest = null;
+        for (Voice voice : this.voices) {
+            if (quietest == null || voice.priority.compareTo(quietest.priority) < 0)
+                quietest = voice;
+        }
+        return quietest;
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Create a mixer.
+     *
+     * @param maxVoices the most effects which may play at once
+     */
+    public SoundMixer(int maxVoices) {
+        this(maxVoices, System::nanoTime);
+    }
+
+    /**
+     * Create a mixer with its own clock, i.e. for testing.
+     *
+     * @param maxVoices the most effects which may play at once
+     * @param clock     the current time in nanoseconds
+     */
+    public SoundMixer(int maxVoices, LongSupplier clock) {
+        this.maxVoices = maxVoices;
+        this.clock = clock;
+    }
+
+    /**
+     * Set how an effect is mixed. Effects which aren't configured have normal
+     * priority and no cooldown.
+     *
+     * @param sound    the name of the effect
+     * @param priority how important the effect is
+     * @param cooldown the shortest time between two plays of the effect, in
+     *                 milliseconds
+     */
+    public synchronized void configure(String sound, SoundPriority priority, long cooldown) {
+        this.effects.put(sound, new Effect(priority, cooldown * 1_000_000));
+    }
+
+    /**
+     * Play an effect, if the mixer allows it.
+     *
+     * @param sound   the name of the effect
+     * @param channel plays the effect
+     * @return true if the effect was played, false if it was dropped
+     */
+    public synchronized boolean play(String sound, Channel channel) {
+        Effect effect = this.effects.getOrDefault(sound, new Effect(SoundPriority.NORMAL, 0));
+        long now = this.clock.getAsLong();
+        Long last = this.lastPlayed.get(sound);
+        if (last != null && now - last < effect.cooldown) {
+            this.dropped.merge(sound, 1, Integer::sum);
+            return false;
+        }
+
+        // Forget the voices which have finished. A channel which is played again is
+        // stopped first, as an audio clip would otherwise play a second overlapping
+        // copy, so it restarts in its own place rather than needing room
+        Iterator<Voice> it = this.voices.iterator();
+        while (it.hasNext()) {
+            Voice voice = it.next();
+            if (voice.channel.equals(channel)) {
+                voice.channel.stop();
+                it.remove();
+            } else if (!voice.channel.isPlaying()) {
+                it.remove();
+            }
+        }
+
+        while (!this.voices.isEmpty() && this.voices.size() >= this.maxVoices) {
+            Voice quietest = this.__quietest();
+            if (quietest.priority.compareTo(effect.priority) > 0) {
+                this.dropped.merge(sound, 1, Integer::sum);
+                return false;
+            }
+            quietest.channel.stop();
+            this.voices.remove(quietest);
+            this.cutOff.merge(quietest.sound, 1, Integer::sum);
+        }
+
+        this.voices.add(new Voice(sound, effect.priority, channel));
+        this.lastPlayed.put(sound, now);
+        channel.play();
+        return true;
+    }
+
+    /**
+     * Stop every effect which is playing.
+     */
+    public synchronized void stopAll() {
+        for (Voice voice : this.voices)
+            voice.channel.stop();
+        this.voices.clear();
+    }
+
+    /**
+     * Get the number of times an effect wasn't played, because of its cooldown or
+     * because more important effects were playing.
+     *
+     * @param sound the name of the effect
+     * @return the number of times it was dropped
+     */
+    public synchronized int getDropped(String sound) {
+        return this.dropped.getOrDefault(sound, 0);
+    }
+
+    /**
+     * Get the number of times an effect was stopped early, to make room for
+     * another.
+     *
+     * @param sound the name of the effect
+     * @return the number of times it was cut off
+     */
+    public synchronized int getCutOff(String sound) {
+        return this.cutOff.getOrDefault(sound, 0);
+    }
+
+    /**
+     * Describe how many effects have been dropped or cut off.
+     *
+     * @return a summary for each effect, empty if nothing has been shed
+     */
+    public synchronized String report() {
+        TreeMap<String, int[]> counts = new TreeMap<>();
+        for (Map.Entry<String, Integer> entry : this.dropped.entrySet())
+            counts.computeIfAbsent(entry.getKey(), k -> new int[2])[0] = entry.getValue();
+        for (Map.Entry<String, Integer> entry : this.cutOff.entrySet())
+            counts.computeIfAbsent(entry.getKey(), k -> new int[2])[1] = entry.getValue();
+
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            if (report.length() > 0)
+                report.append(", ");
+            report.append(entry.getKey()).append(": ").append(entry.getValue()[0]).append(" dropped, ")
+                    .append(entry.getValue()[1]).append(" cut off");
+        }
+        return report.toString();
+    }
+}
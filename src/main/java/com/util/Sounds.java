@@ -1,13 +1,13 @@
 package com.util;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FilenameFilter;
 import java.net.URISyntaxException;
-import java.util.Arrays;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.MainApp;
+import com.enums.SoundPriority;
+
+import javafx.scene.media.AudioClip;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 import javafx.util.Duration;
@@ -16,57 +16,106 @@ import javafx.util.Duration;
  * This class handles all sound effects and music for the game.
  */
 public class Sounds {
+    //// Constants ////
+    // Every sound effect in the resources/sound folder, these are loaded up front
+    private static final String[] effects = { "bee-utiful", "bzz-ness", "cha-ching", "correct", "drip", "kapai", "pop",
+            "reward" };
+    // The most sound effects which may play at once
+    private static final int maxVoices = 4;
+
+    //// Properties ////
     private static MediaPlayer musicPlayer;
+    // The music to start once the platform has been probed, null if there is none
+    private static String pendingMusic;
+    private static final ConcurrentHashMap<String, AudioClip> clips = new ConcurrentHashMap<>();
+    private static final SoundMixer mixer = new SoundMixer(maxVoices);
+
+    static {
+        // Feedback for the answer and the reward are never starved by ui sounds
+        mixer.configure("correct", SoundPriority.HIGH, 0);
+        mixer.configure("reward", SoundPriority.HIGH, 0);
+        mixer.configure("bee-utiful", SoundPriority.NORMAL, 150);
+        mixer.configure("kapai", SoundPriority.NORMAL, 150);
+        mixer.configure("bzz-ness", SoundPriority.NORMAL, 150);
+        mixer.configure("cha-ching", SoundPriority.NORMAL, 100);
+        // Clicking quickly shouldn't stack up copies of the same sound
+        mixer.configure("pop", SoundPriority.LOW, 80);
+        mixer.configure("drip", SoundPriority.LOW, 60);
+    }
 
     /**
-     * Loads information from the underlying OS, acquiring the exact linux
-     * distribution we are running on. Modified from:
-     * https://stackoverflow.com/questions/15018474/getting-linux-distro-from-java
-     * 
-     * HACK: Ubuntu does not support playing of .mp3s! Is an imcompatability with
-     * javafx 8. This is unlikely to be fixed in the future, and only updating to a
-     * newer version of javafx will fix it. This function is needed to fix this
-     * issue.
-     * 
-     * See https://github.com/javafxports/openjdk-jfx/issues/331 for more
-     * information.
-     * 
-     * @return a string representing the distribution
+     * Lets the mixer play an audio clip.
      */
-    private static String getOSInformation() {
-        // lists all the files ending with -release in the etc folder
-        File dir = new File("/etc/");
-        File fileList[] = new File[0];
-        if (dir.exists()) {
-            fileList = dir.listFiles(new FilenameFilter() {
-                public boolean accept(File dir, String filename) {
-                    return filename.endsWith("-release");
-                }
-            });
+    private static class ClipChannel implements SoundMixer.Channel {
+        private final AudioClip clip;
+
+        private ClipChannel(AudioClip clip) {
+            this.clip = clip;
         }
-        // looks for the version file (not all linux distros)
-        File fileVersion = new File("/proc/version");
-        if (fileVersion.exists()) {
-            fileList = Arrays.copyOf(fileList, fileList.length + 1);
-            fileList[fileList.length - 1] = fileVersion;
+
+        @Override
+        public void play() {
+            this.clip.play();
         }
-        // prints all the version-related files
-        for (File f : fileList) {
-            try {
-                BufferedReader myReader = new BufferedReader(new FileReader(f));
-                String strLine = null;
-                while ((strLine = myReader.readLine()) != null) {
-                    if (strLine.contains("PRETTY_NAME=")) {
-                        return strLine.substring(12, strLine.length() - 1).toLowerCase();
-                    }
 
+        @Override
+        public void stop() {
+            this.clip.stop();
+        }
+
+        @Override
+        public boolean isPlaying() {
+            return this.clip.isPlaying();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ClipChannel && ((ClipChannel) other).clip == this.clip;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.clip.hashCode();
+        }
+    }
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Get the clip for a sound effect, loading it the first time. Clips are
+     * decoded into memory, so they can be played again without delay.
+     * 
+     * @param sound the name of the sound
+     * @return the clip
+     * @throws IllegalArgumentException if there is no such sound
+     */
+    private static AudioClip __getClip(String sound) {
+        return clips.computeIfAbsent(sound, name -> {
+            URL url = MainApp.class.getResource("/sound/" + name + ".wav");
+            if (url == null)
+                throw new IllegalArgumentException("Unknown sound effect " + name);
+            return new AudioClip(url.toExternalForm());
+        });
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Load every sound effect in the background, so the first time each is played
+     * isn't delayed.
+     */
+    public static void preloadEffects() {
+        Thread loader = new Thread(() -> {
+            for (String sound : effects) {
+                try {
+                    __getClip(sound);
+                } catch (RuntimeException e) {
+                    System.err.println("Unable to load sound file: " + sound + " due to error " + e.toString());
                 }
-                myReader.close();
-            } catch (Exception e) {
-                System.err.println("Error: " + e.getMessage());
             }
-        }
-        return "";
+        }, "sound-preload");
+        loader.setDaemon(true);
+        loader.start();
     }
 
     /**
@@ -74,18 +123,30 @@ public class Sounds {
      * @param music
      */
     public static void playMusic(String music) {
-        // HACK: Ubuntu does not support playing of .mp3s! Is an imcompatability with
-        // javafx 8. This
-        // is unlikely to be fixed in the future, and only updating to a newer version
-        // of javafx
-        // will fix it.
-        // See https://github.com/javafxports/openjdk-jfx/issues/331 for more
-        // information.
-        if (getOSInformation().contains("ubuntu"))
+        // Some platforms can't play mp3s, this is worked out once at startup. If that
+        // hasn't finished, the latest music is started once it has, rather than
+        // waiting on the javafx thread
+        PlatformCapabilities capabilities = PlatformCapabilities.probe().getNow(null);
+        if (capabilities == null) {
+            if (pendingMusic == null) {
+                PlatformCapabilities.probe().thenAcceptAsync(probed -> {
+                    String next = pendingMusic;
+                    pendingMusic = null;
+                    if (next != null)
+                        playMusic(next);
+                }, API.fxThread);
+            }
+            pendingMusic = music;
+            return;
+        }
+        pendingMusic = null;
+        if (!capabilities.isMp3Supported())
             return;
 
         if (musicPlayer != null) {
             musicPlayer.stop();
+            musicPlayer.dispose(); // Free the native player, a new one is made below
+            musicPlayer = null;
         }
 
         if (!MainApp.getSetting().getMusic())
@@ -115,22 +176,48 @@ public class Sounds {
     }
 
     /**
-     * Play a sound from the resources/sound folder. SAFTEY: As this is a built-in
-     * javafx method execution is ended automatically upon termination of the main
-     * thread. WARNING: Will fail if an unknown sound is provided (full thread
-     * crash).
+     * Play a sound from the resources/sound folder. Sounds are played from clips
+     * kept in memory, so they start straight away. The mixer may drop the sound,
+     * if it was played very recently or more important sounds are playing.
      * 
      * @param sound the name of the sound to play
      */
     public static void playSoundEffect(String sound) {
         if (!MainApp.getSetting().getSounds())
             return;
+        AudioClip clip;
         try {
-            String path = MainApp.class.getResource("/sound/" + sound + ".wav").toURI().toString();
-            // Play sound
-            new MediaPlayer(new Media(path)).play();
+            clip = __getClip(sound);
         } catch (Exception e) {
             System.err.println("Unable to load sound file: " + sound + " due to error " + e.toString());
+            return;
+        }
+
+        mixer.play(sound, new ClipChannel(clip));
+    }
+
+    /**
+     * @return the mixer deciding which sound effects play, i.e. to read its drop
+     *         counters
+     */
+    public static SoundMixer getMixer() {
+        return mixer;
+    }
+
+    /**
+     * Stop all sounds and free the music player. Should be called when the
+     * application exits.
+     */
+    public static void shutdown() {
+        pendingMusic = null;
+        mixer.stopAll();
+        String shed = mixer.report();
+        if (!shed.isEmpty())
+            System.err.println("Sound effects shed: " + shed);
+        if (musicPlayer != null) {
+            musicPlayer.stop();
+            musicPlayer.dispose();
+            musicPlayer = null;
         }
     }
 }
@@ -0,0 +1,140 @@
+package com.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An on-disk cache of words pre-synthesised by festival's text2wave. Each
+ * phrase is only rendered once for a given voice and speed, after which it can
+ * be played back straight from the wav file.
+ */
+public class SpeechCache {
+    //// Constants ////
+    private static final String cacheDir = "./.cache/tts";
+
+    //// Properties ////
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> renders = new ConcurrentHashMap<>();
+    private final ExecutorService renderer = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "tts-render");
+        t.setDaemon(true);
+        return t;
+    });
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Create a key which uniquely identifies a rendered phrase. This is also used
+     * as the file name in the cache directory.
+     *
+     * @return a hex digest of the phrase, voice and speed
+     */
+    private static String __key(String text, String voice, double stretch) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest((voice + "|" + stretch + "|" + text).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash)
+                hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-1 is required to be present on every java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Synthesise a phrase to a wav file using text2wave. The file is written under
+     * a temporary name and moved into place once complete, so a half written file
+     * is never played.
+     *
+     * @param target where the wav should end up
+     * @return the path to the wav file
+     * @throws IOException if text2wave fails
+     */
+    private static Path __render(Path target, String text, String voice, double stretch) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), "render", ".wav");
+        try {
+            ProcessBuilder builder = new ProcessBuilder("text2wave", "-o", tmp.toString(), "-eval", "(" + voice + ")",
+                    "-eval", "(Parameter.set 'Duration_Stretch " + stretch + ")");
+            builder.redirectError(ProcessBuilder.Redirect.DISCARD);
+            builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            Process p = builder.start();
+            try (OutputStream stdin = p.getOutputStream()) {
+                stdin.write(text.getBytes(StandardCharsets.UTF_8));
+            }
+            if (p.waitFor() != 0 || Files.size(tmp) == 0)
+                throw new IOException("text2wave was unable to render: " + text);
+            return Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering: " + text);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Get the rendered wav file for a phrase, rendering it in the background if it
+     * is not already cached. Concurrent requests for the same phrase share one
+     * render.
+     *
+     * @param text    the phrase to be spoken
+     * @param voice   the festival voice to use
+     * @param stretch the duration stretch factor for festival
+     * @return a future which completes with the path to the wav file
+     */
+    public CompletableFuture<Path> get(String text, String voice, double stretch) {
+        String key = __key(text, voice, stretch);
+        Path target = Paths.get(cacheDir, key + ".wav");
+        CompletableFuture<Path> render = this.renders.computeIfAbsent(key, k -> {
+            if (Files.isRegularFile(target))
+                return CompletableFuture.completedFuture(target);
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return __render(target, text, voice, stretch);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }, this.renderer);
+        });
+        // Don't remember failures, so we can try again next time
+        render.whenComplete((path, e) -> {
+            if (e != null)
+                this.renders.remove(key, render);
+        });
+        return render;
+    }
+
+    /**
+     * Begin rendering a phrase in the background so that it is ready to be played
+     * later.
+     *
+     * @param text    the phrase to be spoken
+     * @param voice   the festival voice to use
+     * @param stretch the duration stretch factor for festival
+     */
+    public void warmUp(String text, String voice, double stretch) {
+        this.get(text, voice, stretch);
+    }
+
+    /**
+     * Stop any renders in progress. Should be called when the application exits.
+     */
+    public void shutdown() {
+        this.renderer.shutdownNow();
+    }
+}
@@ -1,57 +1,179 @@
 package com.util;
 
 import java.io.IOException;
-import java.util.ArrayDeque;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.MainApp;
 import com.enums.Language;
 import com.models.Word;
 
-import javafx.concurrent.Task;
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
 
 /**
  * Handles all TTS for the Kemu Kupu Application
  */
 public class TTS {
-    private ArrayDeque<ProcessBuilder> festivalQueue;
-    private boolean speaking;
+    //// Constants ////
+    // The most utterances that may be waiting at once, further requests are dropped.
+    private static final int maxQueued = 20;
+
+    //// Properties ////
+    private LinkedBlockingQueue<Utterance> festivalQueue;
+    private Thread worker;
+    private Festival festival;
+    private SpeechCache cache;
+    private volatile MediaPlayer player;
+    private volatile CountDownLatch playback;
+    private volatile long generation; // Incremented every time speech is stopped
+
+    // Metrics
+    private final AtomicLong numSpoken = new AtomicLong();
+    private final AtomicLong numDropped = new AtomicLong();
+    private final AtomicLong numCoalesced = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private volatile long lastLatency;
+
+    /**
+     * A single phrase waiting to be read by festival.
+     */
+    private static class Utterance {
+        private final String text;
+        private final String voice;
+        private final double stretch;
+        private final long queuedAt;
+
+        private Utterance(String text, String voice, double stretch) {
+            this.text = text;
+            this.voice = voice;
+            this.stretch = stretch;
+            this.queuedAt = System.nanoTime();
+        }
+
+        /**
+         * Check whether two utterances would sound the same.
+         */
+        private boolean sameSpeech(Utterance other) {
+            return this.text.equals(other.text) && this.voice.equals(other.voice) && this.stretch == other.stretch;
+        }
+    }
 
     //// Private (Helper) Methods ////
 
     /**
-     * Pull the next word from the queue and read it.
+     * Get the festival voice for a language
+     * 
+     * @param language the language to be spoken
+     * @return the name of the festival voice
+     */
+    private static String __voice(Language language) {
+        return (language == Language.MAORI) ? "voice_akl_mi_pk06_cg" : "voice_akl_nz_cw_cg_cg";
+    }
+
+    /**
+     * Play a pre-rendered wav file, blocking until playback has ended or been
+     * stopped.
+     * 
+     * @param u          the utterance being played
+     * @param wav        the file to play
+     * @param generation the generation the utterance was started in, if speech has
+     *                   since been stopped the file will not be played
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void __play(Utterance u, Path wav, long generation) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        MediaPlayer p = new MediaPlayer(new Media(wav.toUri().toString()));
+        p.setOnEndOfMedia(done::countDown);
+        p.setOnStopped(done::countDown);
+        p.setOnError(done::countDown);
+        this.player = p;
+        this.playback = done;
+
+        // Speech may have been stopped while we were setting up
+        if (generation == this.generation) {
+            p.play();
+            this.__recordLatency(u);
+        } else {
+            done.countDown();
+        }
+
+        done.await();
+        this.player = null;
+        this.playback = null;
+        p.dispose();
+    }
+
+    /**
+     * Speak an utterance, preferring the cached wav file and falling back to live
+     * festival speech if it could not be rendered.
+     * 
+     * @param u the utterance to speak
+     * @throws IOException if unable to communicate with festival
      */
-    private void __speakNext() {
-        // If currently speaking, do not begin again
-        if (speaking || festivalQueue.peek() == null)
+    private void __speak(Utterance u) throws IOException {
+        long generation = this.generation;
+        try {
+            Path wav = this.cache.get(u.text, u.voice, u.stretch).get();
+            this.__play(u, wav, generation);
             return;
-        speaking = true;
-
-        // Create speech as new task - goverened by javafx
-        Task<Void> task = new Task<Void>() {
-            @Override
-            public Void call() throws Exception {
-                try {
-                    Process p = festivalQueue.poll().start();
-                    p.waitFor();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-                speaking = false;
-                __speakNext();
-                return null;
-            }
-        };
+        } catch (ExecutionException e) {
+            System.err.println("Unable to render speech, falling back to festival: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (generation == this.generation) {
+            this.__recordLatency(u);
+            festival.say(u.text, u.voice, u.stretch);
+        }
+    }
 
-        // Push speech onto new thread to avoid blocking.
-        new Thread(task).start();
+    /**
+     * Record how long an utterance waited between being requested and starting to
+     * be spoken.
+     * 
+     * @param u the utterance which has started
+     */
+    private void __recordLatency(Utterance u) {
+        long latency = System.nanoTime() - u.queuedAt;
+        this.lastLatency = latency;
+        this.totalLatency.addAndGet(latency);
+        this.numSpoken.incrementAndGet();
+    }
+
+    /**
+     * The body of the speech worker thread. Reads each queued word in turn, waiting
+     * for more words once the queue is empty.
+     */
+    private void __run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                __speak(festivalQueue.take());
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                // Keep the worker alive, one bad word shouldn't stop all speech
+                e.printStackTrace();
+            }
+        }
     }
 
     //// Public Methods ////
 
     public TTS() {
-        this.festivalQueue = new ArrayDeque<>();
-        this.speaking = false;
+        this.festivalQueue = new LinkedBlockingQueue<>(maxQueued);
+        this.festival = new Festival();
+        this.cache = new SpeechCache();
+
+        // All speech happens on a single worker, so words are read in order
+        this.worker = new Thread(this::__run, "tts-worker");
+        this.worker.setDaemon(true);
+        this.worker.start();
     }
 
     /**
@@ -71,27 +193,113 @@ public class TTS {
         if (repeats < 1 || repeats > 20)
             throw new IllegalArgumentException("repeats should be between 1 and 20 (inclusive)");
 
-        // Construct the command
-        String speedCommand = "\"(Parameter.set 'Duration_Stretch " + MainApp.getSetting().getDurationFactor() + ")\"";
-        String langCommand = (language == Language.MAORI) ? "voice_akl_mi_pk06_cg" : "voice_akl_nz_cw_cg_cg";
+        // Construct the utterance
+        double stretch = MainApp.getSetting().getDurationFactor();
+        String voice = __voice(language);
         String wordRaw = (language == Language.MAORI) ? word.getMaori() : word.getEnglish();
         if (wordRaw == null)
             throw new IllegalArgumentException("Attempted to read "
                     + ((language == Language.MAORI) ? "maori" : "english") + " word, which was null!");
-        String wordCommand = "\"(SayText \\\"" + wordRaw + "\\\")\"";
 
-        // Generate and store process builders
-        for (int i = 0; i < Integer.max(repeats, 1); i++) {
-            ProcessBuilder c = new ProcessBuilder("/bin/bash", "-c",
-                    "echo \"(" + langCommand + ")\" " + speedCommand + " " + wordCommand + " | festival");
-            festivalQueue.add(c);
+        // Presses of "hear again" while the word is still waiting are coalesced, so
+        // only queue the repeats which aren't already pending.
+        Utterance utterance = new Utterance(wordRaw, voice, stretch);
+        long pending = festivalQueue.stream().filter(utterance::sameSpeech).count();
+        this.numCoalesced.addAndGet(Long.min(pending, repeats));
+        for (long i = pending; i < repeats; i++) {
+            if (!festivalQueue.offer(new Utterance(wordRaw, voice, stretch)))
+                this.numDropped.incrementAndGet();
         }
-
-        // Begin speaking
-        __speakNext();
     }
 
+    /**
+     * Stop all speech, clearing the queue and cutting off any word currently being
+     * read.
+     */
     public void stopSpeech() {
         festivalQueue.clear();
+        this.generation++;
+        MediaPlayer p = this.player;
+        if (p != null)
+            p.stop();
+        CountDownLatch l = this.playback;
+        if (l != null)
+            l.countDown();
+        festival.cancel();
+    }
+
+    /**
+     * Render words in the background, so they can be read instantly later. Should
+     * be called as soon as the words for a game are known.
+     * 
+     * @param words    the words to be rendered
+     * @param language the language the words will be read in
+     */
+    public void preload(List<Word> words, Language language) {
+        double stretch = MainApp.getSetting().getDurationFactor();
+        String voice = __voice(language);
+        for (Word word : words) {
+            String wordRaw = (language == Language.MAORI) ? word.getMaori() : word.getEnglish();
+            if (wordRaw != null)
+                this.cache.warmUp(wordRaw, voice, stretch);
+        }
+    }
+
+    /**
+     * @return the number of utterances waiting to be spoken
+     */
+    public int getQueueDepth() {
+        return festivalQueue.size();
+    }
+
+    /**
+     * @return the number of utterances which have been spoken
+     */
+    public long getNumSpoken() {
+        return this.numSpoken.get();
+    }
+
+    /**
+     * @return the number of utterances dropped because the queue was full
+     */
+    public long getNumDropped() {
+        return this.numDropped.get();
+    }
+
+    /**
+     * @return the number of utterances skipped as they were already queued
+     */
+    public long getNumCoalesced() {
+        return this.numCoalesced.get();
+    }
+
+    /**
+     * @return the time in milliseconds between the most recent utterance being
+     *         requested and starting to be spoken
+     */
+    public double getLastLatency() {
+        return this.lastLatency / 1_000_000.0;
+    }
+
+    /**
+     * @return the mean time in milliseconds between an utterance being requested
+     *         and starting to be spoken, or 0 if nothing has been spoken
+     */
+    public double getAverageLatency() {
+        long spoken = this.numSpoken.get();
+        if (spoken == 0)
+            return 0;
+        return this.totalLatency.get() / 1_000_000.0 / spoken;
+    }
+
+    /**
+     * Stop all speech and close the festival process. Should be called when the
+     * application exits.
+     */
+    public void shutdown() {
+        this.worker.interrupt();
+        this.stopSpeech();
+        this.cache.shutdown();
+        festival.shutdown();
     }
 }
\ No newline at end of file
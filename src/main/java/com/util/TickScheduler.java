@@ -0,0 +1,235 @@
+package com.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs the callbacks of the application's timers, i.e. the quiz clock and the
+ * wheel countdown. Callbacks are registered against deadlines measured with
+ * System.nanoTime, and a single background thread sleeps until the next one is
+ * due, so nothing runs between deadlines and an idle application uses no cpu.
+ * Callbacks which fall due together are handed to the javafx thread in one
+ * pulse. Callbacks should work out how much time has passed from
+ * System.nanoTime rather than counting ticks, as a busy javafx thread may
+ * deliver them late.
+ */
+public class TickScheduler {
+    //// Properties ////
+    private static TickScheduler instance;
+    private final Executor fxThread;
+    private final LongSupplier clock; // Nanoseconds
+    private final Timer timer;
+    // Callbacks which are due, waiting for the next pulse
+    private final List<Ticket> due = new ArrayList<>();
+    private boolean pulsePosted = false;
+
+    /**
+     * Runs a task after a delay on a background thread, i.e. a scheduled executor.
+     */
+    public interface Timer {
+        /**
+         * @param task  the task to run
+         * @param delay the time to wait first, in nanoseconds
+         * @return a future, to cancel the task with
+         */
+        Future<?> schedule(Runnable task, long delay);
+
+        void shutdown();
+    }
+
+    /**
+     * A registered callback, which can be cancelled.
+     */
+    public class Ticket {
+        private final Runnable callback;
+        private final long period;
+        private long deadline; // Only used by the timer
+        private volatile Future<?> future;
+        private volatile boolean cancelled = false;
+        private boolean queued = false; // Guarded by the scheduler
+
+        private Ticket(Runnable callback, long deadline, long period) {
+            this.callback = callback;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        /**
+         * Stop the callback from running again, including a run which is already
+         * due. Should be called from the javafx thread.
+         */
+        public void cancel() {
+            this.cancelled = true;
+            this.future.cancel(false);
+        }
+
+        /**
+         * @return true if the callback has been cancelled
+         */
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+    }
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * @return a timer which runs its tasks on a single daemon thread
+     */
+    private static Timer __defaultTimer() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tick-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        return new Timer() {
+            @Override
+            public Future<?> schedule(Runnable task, long delay) {
+                return executor.schedule(task, delay, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void shutdown() {
+                executor.shutdownNow();
+            }
+        };
+    }
+
+    /**
+     * Set the timer for the next deadline of a callback.
+     *
+     * @param ticket the callback to wait for
+     */
+    private void __arm(Ticket ticket) {
+        long delay = Long.max(0, ticket.deadline - this.clock.getAsLong());
+        ticket.future = this.timer.schedule(() -> this.__fire(ticket), delay);
+        // A cancel which saw the previous future must still stop this one
+        if (ticket.cancelled)
+            ticket.future.cancel(false);
+    }
+
+    /**
+     * A callback has reached its deadline. Queue it, and wait for its next
+     * deadline, which is measured from the first so it doesn't drift. Deadlines
+     * which have already been missed are skipped, rather than run back to back.
+     *
+     * @param ticket the callback which is due
+     */
+    private void __fire(Ticket ticket) {
+        if (ticket.cancelled)
+            return;
+        this.__due(ticket);
+        long now = this.clock.getAsLong();
+        ticket.deadline += ticket.period;
+        if (ticket.deadline < now)
+            ticket.deadline += (now - ticket.deadline + ticket.period - 1) / ticket.period * ticket.period;
+        this.__arm(ticket);
+    }
+
+    /**
+     * Queue a callback which has fallen due, posting a pulse to the javafx thread
+     * if one isn't already waiting. A callback which is already queued isn't
+     * queued again, so a slow javafx thread doesn't build up a backlog.
+     *
+     * @param ticket the callback which is due
+     */
+    private synchronized void __due(Ticket ticket) {
+        if (ticket.queued || ticket.cancelled)
+            return;
+        ticket.queued = true;
+        this.due.add(ticket);
+        if (!this.pulsePosted) {
+            this.pulsePosted = true;
+            this.fxThread.execute(this::__pulse);
+        }
+    }
+
+    /**
+     * Run every callback which is due, on the javafx thread.
+     */
+    private void __pulse() {
+        Ticket[] tickets;
+        synchronized (this) {
+            tickets = this.due.toArray(new Ticket[0]);
+            for (Ticket ticket : tickets)
+                ticket.queued = false;
+            this.due.clear();
+            this.pulsePosted = false;
+        }
+        for (Ticket ticket : tickets) {
+            if (ticket.cancelled)
+                continue;
+            try {
+                ticket.callback.run();
+            } catch (RuntimeException e) {
+                System.err.println("Timer callback failed: " + e);
+                e.printStackTrace();
+            }
+        }
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Create a scheduler.
+     *
+     * @param fxThread runs the callbacks, i.e. on the javafx thread
+     */
+    public TickScheduler(Executor fxThread) {
+        this(fxThread, System::nanoTime, __defaultTimer());
+    }
+
+    /**
+     * Create a scheduler with its own clock and timer, i.e. for testing.
+     *
+     * @param fxThread runs the callbacks, i.e. on the javafx thread
+     * @param clock    the current time in nanoseconds
+     * @param timer    waits for the deadlines
+     */
+    public TickScheduler(Executor fxThread, LongSupplier clock, Timer timer) {
+        this.fxThread = fxThread;
+        this.clock = clock;
+        this.timer = timer;
+    }
+
+    /**
+     * Get the scheduler shared by the application, which runs its callbacks on the
+     * javafx thread.
+     *
+     * @return the scheduler
+     */
+    public static synchronized TickScheduler get() {
+        if (instance == null)
+            instance = new TickScheduler(API.fxThread);
+        return instance;
+    }
+
+    /**
+     * Run a callback at a deadline, and then every period after it. Later
+     * deadlines are measured from the first, so they don't drift.
+     *
+     * @param deadline the time, from the clock, at which to first run the
+     *                 callback, i.e. a System.nanoTime
+     * @param period   the time between runs, in nanoseconds
+     * @param callback the callback to run
+     * @return a ticket, to cancel the callback with
+     */
+    public Ticket every(long deadline, long period, Runnable callback) {
+        Ticket ticket = new Ticket(callback, deadline, Long.max(1, period));
+        this.__arm(ticket);
+        return ticket;
+    }
+
+    /**
+     * Stop running callbacks. Should be called when the application exits.
+     */
+    public void shutdown() {
+        this.timer.shutdown();
+    }
+}
@@ -0,0 +1,127 @@
+package com.util;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import com.MainApp;
+import com.controllers.ApplicationController;
+import com.enums.Views;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+/**
+ * Keeps loaded views, so navigating back to a view swaps its existing nodes
+ * back in rather than parsing the fxml and decoding its images again. Only
+ * views whose controller is reusable are kept, any other view is loaded from
+ * scratch each time it is shown.
+ */
+public class ViewCache {
+    //// Properties ////
+    // Only used on the javafx thread
+    private final HashMap<Views, CachedView> views = new HashMap<>();
+
+    /**
+     * A loaded view, along with its controller.
+     */
+    private static class CachedView {
+        private final Parent root;
+        private final ApplicationController controller;
+        private boolean shown = false;
+
+        private CachedView(Parent root, ApplicationController controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Load a view from its fxml, without running its start method. This may be
+     * called from a background thread, as long as the view isn't shown yet.
+     *
+     * @param view the view to load
+     * @return the loaded view
+     * @throws IOException if the fxml can't be loaded
+     */
+    private static CachedView __load(Views view) throws IOException {
+        FXMLLoader loader = new FXMLLoader(MainApp.class.getResource("/fxml/" + view.getFileName() + ".fxml"));
+        loader.setControllerFactory(ViewCache::__createController);
+        loader.setBuilderFactory(AssetCache.getBuilderFactory());
+        Parent root = loader.load();
+        return new CachedView(root, loader.getController());
+    }
+
+    /**
+     * Create the controller for a view, telling it to wait until it is shown before
+     * starting.
+     *
+     * @param type the class of the controller
+     * @return the controller
+     */
+    private static Object __createController(Class<?> type) {
+        try {
+            Object controller = type.getDeclaredConstructor().newInstance();
+            if (controller instanceof ApplicationController)
+                ((ApplicationController) controller).deferStart();
+            return controller;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create controller " + type.getName(), e);
+        }
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Get the nodes for a view, ready to be shown. A cached view is reset and
+     * reused, otherwise the view is loaded. The views start method is run once the
+     * current event has been handled, by which time it should be on screen.
+     *
+     * @param view the view to show
+     * @return the root node of the view
+     * @throws IOException if the view had to be loaded, and its fxml couldn't be
+     */
+    public Parent get(Views view) throws IOException {
+        CachedView cached = this.views.get(view);
+        if (cached == null || cached.controller == null) {
+            cached = __load(view);
+            if (cached.controller != null && cached.controller.isReusable())
+                this.views.put(view, cached);
+        } else if (cached.shown) {
+            // Clear anything left over from a modal which was open when we navigated away
+            cached.root.setEffect(null);
+            cached.root.setDisable(false);
+            cached.controller.reset();
+        }
+
+        cached.shown = true;
+        if (cached.controller != null)
+            cached.controller.show();
+        return cached.root;
+    }
+
+    /**
+     * Load views in the background, so they can be shown without delay later. Only
+     * reusable views are kept, and views which are already cached are skipped.
+     *
+     * @param toLoad the views to load
+     */
+    public void preload(Views... toLoad) {
+        Thread loader = new Thread(() -> {
+            for (Views view : toLoad) {
+                try {
+                    CachedView cached = __load(view);
+                    if (cached.controller == null || !cached.controller.isReusable())
+                        continue;
+                    Platform.runLater(() -> this.views.putIfAbsent(view, cached));
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Unable to preload view " + view.getFileName() + ": " + e);
+                }
+            }
+        }, "view-preload");
+        loader.setDaemon(true);
+        loader.start();
+    }
+}
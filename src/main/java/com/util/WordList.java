@@ -0,0 +1,53 @@
+package com.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.models.Word;
+
+/**
+ * An immutable list of the words in a topic, indexed by their position in the
+ * topic file. A fresh {@link Word} is created each time one is requested, so a
+ * game can never change the cached copy. Implementations decide how the words
+ * are stored, and may decode them lazily.
+ */
+public abstract class WordList {
+    /**
+     * @return the number of words in this list
+     */
+    public abstract int size();
+
+    /**
+     * Get a word from the list
+     * 
+     * @param i the index of the word
+     * @return a new word instance
+     */
+    public abstract Word get(int i);
+
+    /**
+     * Select random words from the list without replacement, using a partial
+     * Fisher-Yates shuffle. Only the swapped positions are remembered, so this
+     * takes O(numWords) time and memory no matter how large the list is.
+     * 
+     * @param numWords the number of words to select, if larger than the list all
+     *                 words are returned in a random order
+     * @param random   the source of randomness
+     * @return a list of new word instances
+     */
+    public List<Word> sample(int numWords, SplittableRandom random) {
+        int n = this.size();
+        int k = Integer.min(numWords, n);
+        HashMap<Integer, Integer> swapped = new HashMap<>();
+        List<Word> res = new ArrayList<Word>(Integer.max(k, 0));
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(n - i);
+            int picked = swapped.getOrDefault(j, j);
+            swapped.put(j, swapped.getOrDefault(i, i));
+            res.add(this.get(picked));
+        }
+        return res;
+    }
+}
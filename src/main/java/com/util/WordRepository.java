@@ -0,0 +1,327 @@
+package com.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.models.SpellingTopic;
+import com.models.Word;
+
+/**
+ * Caches the word lists stored in a directory, so each topic file is only read
+ * and parsed once. The directory is watched for changes, and any topic which is
+ * modified on disk is reloaded the next time it is used.
+ */
+public class WordRepository {
+    //// Constants ////
+    // Topic files larger than this can't be held in memory, so are streamed from disk.
+    private static final long streamingThreshold = Integer.MAX_VALUE;
+    // Location of compiled topic packs on the system.
+    private static final String packDir = "./.cache/packs";
+
+    //// Properties ////
+    private static final ConcurrentHashMap<Path, WordRepository> repositories = new ConcurrentHashMap<>();
+
+    private final Path dir;
+    private final Path packs;
+    private final ConcurrentHashMap<String, WordList> topics = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> streamedCounts = new ConcurrentHashMap<>();
+    private volatile List<String> topicNames;
+
+    //// Private (Helper) Methods ////
+
+    /**
+     * Create a repository for a directory. Use {@link #forDirectory(String)}
+     * so that each directory is only cached once.
+     * 
+     * @param dir the directory containing the topic files
+     */
+    private WordRepository(Path dir) {
+        this.dir = dir;
+        this.packs = Paths.get(packDir, Integer.toHexString(dir.hashCode()));
+        this.__watch();
+    }
+
+    /**
+     * Parse a single csv line into a word, used when streaming a topic. Quoted
+     * fields and escaped quotes (`""`) are supported, but unlike
+     * {@link CsvWordList} a quoted field can't span multiple lines.
+     * 
+     * @param l the line to parse
+     * @return the word on the line
+     * @throws IOException if the line doesn't have two columns
+     */
+    private static Word __parseLine(String l) throws IOException {
+        StringBuilder curr = new StringBuilder();
+        String maori = null;
+        boolean quoted = false;
+        for (int i = 0; i < l.length(); i++) {
+            char c = l.charAt(i);
+            if (c == '"' && quoted && i + 1 < l.length() && l.charAt(i + 1) == '"') {
+                curr.append('"'); // An escaped quote
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                if (maori != null)
+                    break; // Ignore any extra columns
+                maori = curr.toString();
+                curr.setLength(0);
+            } else {
+                curr.append(c);
+            }
+        }
+        if (maori == null)
+            throw new IOException("Unable to parse string to csv: " + l);
+        return new Word(maori, curr.toString());
+    }
+
+    /**
+     * Open a topic from disk. The topic is read from its compiled pack, which is
+     * built (or rebuilt, if the csv has changed) first if needed. If the pack
+     * can't be used, a snapshot of the csv is read directly instead.
+     * 
+     * @param name the name of the topic file
+     * @return the words in the file
+     * @throws IOException if the file can't be read or parsed
+     */
+    private WordList __load(String name) throws IOException {
+        Path source = this.dir.resolve(name);
+        Path pack = this.packs.resolve(name + ".pack");
+        try {
+            if (!PackedWordList.isCurrent(pack, source))
+                PackedWordList.compile(source, pack);
+            return PackedWordList.open(pack);
+        } catch (IOException e) {
+            // Any problem with the csv itself will be reported from here
+            return CsvWordList.open(source);
+        }
+    }
+
+    /**
+     * Check whether a topic file is too large to be held in memory.
+     * 
+     * @param name the name of the topic file
+     * @return true if the topic should be streamed from disk
+     * @throws IOException if the file size can't be read
+     */
+    private boolean __isStreamed(String name) throws IOException {
+        return Files.size(this.dir.resolve(name)) > streamingThreshold;
+    }
+
+    /**
+     * Start a background thread which drops cached topics when their files
+     * change. If the directory can't be watched, the cache is never invalidated.
+     */
+    private void __watch() {
+        WatchService watcher;
+        try {
+            watcher = FileSystems.getDefault().newWatchService();
+            this.dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            return;
+        }
+
+        Thread t = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watcher.take();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            this.topics.clear();
+                            this.streamedCounts.clear();
+                        } else {
+                            this.topics.remove(event.context().toString());
+                            this.streamedCounts.remove(event.context().toString());
+                        }
+                    }
+                    this.topicNames = null;
+                    if (!key.reset())
+                        break; // Directory no longer exists
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // Nothing to do, we are finished watching
+            }
+            // Directory is gone, so stop caching it
+            this.topics.clear();
+            this.streamedCounts.clear();
+            repositories.remove(this.dir, this);
+        }, "word-watcher");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    //// Public Methods ////
+
+    /**
+     * Get the repository for a directory of topic files, creating it if needed.
+     * 
+     * @param dir the directory containing the topic files
+     * @return the repository for the directory
+     */
+    public static WordRepository forDirectory(String dir) {
+        Path p = Paths.get(dir).toAbsolutePath().normalize();
+        return repositories.computeIfAbsent(p, WordRepository::new);
+    }
+
+    /**
+     * Get all the words in a topic, reading them from disk only if they are not
+     * already cached.
+     * 
+     * @param name the name of the topic file
+     * @return the words in the topic
+     * @throws IOException if the file can't be read or parsed
+     */
+    public WordList getWordList(String name) throws IOException {
+        WordList words = this.topics.get(name);
+        if (words == null) {
+            words = this.__load(name);
+            this.topics.put(name, words);
+        }
+        return words;
+    }
+
+    /**
+     * Get the number of words in a topic.
+     * 
+     * @param name the name of the topic file
+     * @return the number of words
+     * @throws IOException if the file can't be read or parsed
+     */
+    public int getWordCount(String name) throws IOException {
+        WordList words = this.topics.get(name);
+        if (words != null)
+            return words.size();
+        Integer count = this.streamedCounts.get(name);
+        if (count != null)
+            return count;
+
+        if (!this.__isStreamed(name))
+            return this.getWordList(name).size();
+
+        // Too large to cache the words, but the count can be remembered
+        int lines = 0;
+        try (BufferedReader br = Files.newBufferedReader(this.dir.resolve(name), StandardCharsets.UTF_8)) {
+            for (String l; (l = br.readLine()) != null;) {
+                if (!l.isEmpty())
+                    lines++;
+            }
+        }
+        this.streamedCounts.put(name, lines);
+        return lines;
+    }
+
+    /**
+     * Select a number of random words from a topic. If the topic does not have
+     * enough words, all of them are returned in a random order.
+     * 
+     * @param name     the name of the topic file
+     * @param numWords the number of words to select
+     * @return a list of new word instances
+     * @throws IOException if the file can't be read or parsed
+     */
+    public List<Word> sample(String name, int numWords) throws IOException {
+        return this.sample(name, numWords, new SplittableRandom());
+    }
+
+    /**
+     * Select a number of random words from a topic, using the given source of
+     * randomness. Passing a seeded random gives a repeatable selection. Topics too
+     * large to be cached are sampled straight from disk.
+     * 
+     * @param name     the name of the topic file
+     * @param numWords the number of words to select
+     * @param random   the source of randomness
+     * @return a list of new word instances
+     * @throws IOException if the file can't be read or parsed
+     */
+    public List<Word> sample(String name, int numWords, SplittableRandom random) throws IOException {
+        if (!this.topics.containsKey(name) && this.__isStreamed(name))
+            return this.sampleStreaming(name, numWords, random);
+        return this.getWordList(name).sample(numWords, random);
+    }
+
+    /**
+     * Select a number of random words from a topic while reading it line by line,
+     * using reservoir sampling. Only the selected words are ever held in memory,
+     * so this works for files of any size.
+     * 
+     * @param name     the name of the topic file
+     * @param numWords the number of words to select
+     * @param random   the source of randomness
+     * @return a list of new word instances
+     * @throws IOException if the file can't be read or parsed
+     */
+    public List<Word> sampleStreaming(String name, int numWords, SplittableRandom random) throws IOException {
+        List<Word> reservoir = new ArrayList<Word>();
+        if (numWords <= 0)
+            return reservoir;
+
+        int seen = 0;
+        try (BufferedReader br = Files.newBufferedReader(this.dir.resolve(name), StandardCharsets.UTF_8)) {
+            for (String l; (l = br.readLine()) != null;) {
+                if (l.isEmpty())
+                    continue;
+                if (seen < numWords) {
+                    reservoir.add(__parseLine(l));
+                } else {
+                    int j = random.nextInt(seen + 1);
+                    if (j < numWords)
+                        reservoir.set(j, __parseLine(l));
+                }
+                seen++;
+            }
+        }
+        this.streamedCounts.put(name, seen);
+
+        // The first words read always start in order, so mix them up
+        for (int i = reservoir.size() - 1; i > 0; i--)
+            Collections.swap(reservoir, i, random.nextInt(i + 1));
+        return reservoir;
+    }
+
+    /**
+     * Get the topics in this directory which contain at least one word. The
+     * listing is cached until a file in the directory changes.
+     * 
+     * @param path the path the topics should report, usually the directory as
+     *             given by the caller
+     * @return a list of spelling topics
+     */
+    public ArrayList<SpellingTopic> getTopics(String path) {
+        List<String> names = this.topicNames;
+        if (names == null) {
+            names = new ArrayList<>();
+            for (String name : new File(this.dir.toString()).list()) {
+                try {
+                    if (this.getWordCount(name) == 0)
+                        continue; // Not enough words
+                } catch (Exception e) {
+                }
+                names.add(name);
+            }
+            this.topicNames = names;
+        }
+
+        ArrayList<SpellingTopic> result = new ArrayList<SpellingTopic>();
+        for (String name : names)
+            result.add(new SpellingTopic(name, path + "/" + name));
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package com.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.enums.MatchStrictness;
+import com.util.PersistenceService;
+
+import org.junit.jupiter.api.Test;
+
+public class SettingTest {
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        Path dir = Files.createTempDirectory("settings");
+        Path path = dir.resolve("settings.json");
+
+        Setting setting = new Setting();
+        setting.setMusic(false);
+        setting.setTimerDuration(45);
+        setting.setMatchStrictness(MatchStrictness.TOLERANT);
+        setting.setMatchTolerance(2);
+        setting.save(path);
+        PersistenceService.get().flush();
+
+        Setting loaded = Setting.load(path);
+        assertFalse(loaded.getMusic());
+        assertEquals(45, loaded.getTimerDuration());
+        assertEquals(MatchStrictness.TOLERANT, loaded.getMatchStrictness());
+        assertEquals(2, loaded.getMatchTolerance());
+
+        Files.delete(path);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testLoadKeepsDefaultsForBadValues() throws IOException {
+        Path dir = Files.createTempDirectory("settings");
+        Path path = dir.resolve("settings.json");
+        Files.write(path, "{\"timerDuration\":5,\"matchStrictness\":\"NOT_A_STRICTNESS\",\"matchTolerance\":0}"
+                .getBytes(StandardCharsets.UTF_8));
+
+        Setting loaded = Setting.load(path);
+        assertEquals(30, loaded.getTimerDuration());
+        assertEquals(MatchStrictness.EXACT, loaded.getMatchStrictness());
+        assertEquals(1, loaded.getMatchTolerance()); // Clamped to what the settings offer
+
+        Files.delete(path);
+        Files.delete(dir);
+    }
+}
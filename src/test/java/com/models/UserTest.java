@@ -2,13 +2,21 @@ package com.models;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.List;
 import com.enums.Avatar;
+import com.util.MutationJournal;
+import com.util.PersistenceService;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
@@ -58,11 +66,28 @@ public class UserTest extends User {
         }
     }
 
+    /**
+     * Remove every saved user, so the next user created is a fresh guest.
+     */
+    private void __clearSaves() throws IOException {
+        PersistenceService.get().flush();
+        new File(this.guestSavePath).delete();
+        new File(this.userSavePath).delete();
+        ProfileStore store = ProfileStore.get();
+        for (ProfileStore.Entry entry : store.getProfiles())
+            store.remove(entry.key);
+    }
+
     //// Tests ////
 
     @BeforeAll
-    public static void setup() {
+    public static void setup() throws IOException {
         prefix = String.valueOf(Instant.now().toEpochMilli());
+
+        //Keep the profiles and changes saved on this computer out of the way
+        Path dir = Files.createTempDirectory("user");
+        ProfileStore.use(new ProfileStore(dir.resolve("profiles")));
+        MutationJournal.use(new MutationJournal(dir.resolve("journal.log"), true));
     }
     
     @Test
@@ -127,6 +152,31 @@ public class UserTest extends User {
         assertTrue(user.getAchievements().contains(achievement));
         this.__deleteAccount(user);
     }
+
+    @Test
+    public void testAddingAchievementBatch() throws IOException {
+        //Create Account
+        User user = this.__createAccount("_testing_account_achievement_batch");
+        try {
+            String res = user.unlockAchievement("EXPLORER_2");
+            if (res != null)
+                fail("Failure to add achievement: " + res);
+
+            //Add several achievements at once, including one already unlocked
+            res = user.unlockAchievements(List.of("EXPLORER_2", "STUDENT_1", "POCKETS_1", "STUDENT_1"));
+            if (res != null)
+                fail("Failure to add achievements: " + res);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail("Critical failure to add achievements: " + e.toString());
+        }
+
+        //Validate only the new achievements were added
+        assertEquals(3, user.getAchievements().size());
+        assertTrue(user.getAchievements().contains("STUDENT_1"));
+        assertTrue(user.getAchievements().contains("POCKETS_1"));
+        this.__deleteAccount(user);
+    }
     
     @Disabled
     @Test
@@ -392,8 +442,7 @@ public class UserTest extends User {
 
         //Test Guest Serialization
         {
-            new File(this.guestSavePath).delete();
-            new File(this.userSavePath).delete();
+            this.__clearSaves();
         
             User user = new User(); //Create guest account
             assertEquals(0, user.getAchievements().size());
@@ -415,8 +464,7 @@ public class UserTest extends User {
 
         //Test API Serialization
         {
-            new File(this.guestSavePath).delete();
-            new File(this.userSavePath).delete();
+            this.__clearSaves();
             User user = this.__createAccount("_testing_account_serialize_logged_in");
             try {
                 String res = user.unlockAchievement("STUDENT_2");
@@ -436,4 +484,81 @@ public class UserTest extends User {
             this.__deleteAccount(user);
         }
     }
+
+    @Test
+    public void testLegacyMigration() throws IOException, ClassNotFoundException {
+        this.__clearSaves();
+
+        //Write a guest in the old serialized format
+        User user = new User();
+        user.unlockAchievement("STUDENT_1");
+        this.__clearSaves();
+        try (ObjectOutputStream obj_out = new ObjectOutputStream(new FileOutputStream(this.legacyGuestSavePath))) {
+            obj_out.writeObject(user);
+        }
+
+        //Loading should move it into the profile store
+        User newUser = new User();
+        assertTrue(newUser.getAchievements().contains("STUDENT_1"));
+        assertFalse(newUser.isLoggedIn());
+        assertEquals(ProfileStore.guestKey, ProfileStore.get().getActive());
+        assertTrue(Files.isRegularFile(ProfileStore.get().getDirectory().resolve(ProfileStore.guestKey + ".json")));
+        assertFalse(new File(this.legacyGuestSavePath).exists());
+
+        this.__clearSaves();
+    }
+
+    @Test
+    public void testProfileSwitching() throws IOException {
+        this.__clearSaves();
+
+        //Save a guest profile, then restore it without going through the constructor
+        User user = new User();
+        user.unlockAchievement("STUDENT_1");
+        PersistenceService.get().flush();
+        assertEquals(1, ProfileStore.get().getProfiles().size());
+
+        User loaded = User.load(ProfileStore.guestKey);
+        assertTrue(loaded.getAchievements().contains("STUDENT_1"));
+        assertFalse(loaded.isLoggedIn());
+
+        //A store opened from the disk only knows the index until a profile is loaded
+        ProfileStore reopened = new ProfileStore(ProfileStore.get().getDirectory());
+        assertEquals(ProfileStore.guestKey, reopened.getActive());
+        assertTrue(reopened.load(ProfileStore.guestKey).unlockedAchievements.contains("STUDENT_1"));
+        assertNull(User.load("student-does-not-exist"));
+
+        this.__clearSaves();
+    }
+
+    @Test
+    public void testSignoutForgetsToken() throws IOException {
+        this.__clearSaves();
+
+        //Save a logged in student, without going through the api
+        SavedUser saved = new SavedUser();
+        saved.version = SavedUser.currentVersion;
+        saved.token = "not-a-real-token";
+        saved.id = -1;
+        saved.username = prefix + "_signout";
+        String key = ProfileStore.keyFor(saved.id);
+        ProfileStore.get().put(key, saved);
+        User user = User.load(key);
+        assertTrue(user.isLoggedIn());
+
+        //Signing out keeps the students profile, but not their token
+        user.signout();
+        PersistenceService.get().flush();
+        assertFalse(user.isLoggedIn());
+        assertEquals(ProfileStore.guestKey, ProfileStore.get().getActive());
+        ProfileStore reopened = new ProfileStore(ProfileStore.get().getDirectory());
+        assertNull(reopened.load(key).token);
+        for (ProfileStore.Entry entry : reopened.getProfiles()) {
+            assertFalse(entry.loggedIn);
+            if (entry.key.equals(key))
+                assertEquals(saved.username, entry.getDisplayName());
+        }
+
+        this.__clearSaves();
+    }
 }
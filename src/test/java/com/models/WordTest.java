@@ -1,6 +1,7 @@
 package com.models;
 
 import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -33,4 +34,27 @@ public class WordTest {
         assertFalse(word1.isEqualStrict(word3));
         assertTrue(word1.isEqualStrict(word1));
     }
+
+    @Test
+    public void testNormalisation() {
+        // A combining macron is folded into the precomposed character
+        Word word = new Word(" Ta\u0304ne ", null);
+        assertEquals("t\u0101ne", word.getMaori());
+        assertArrayEquals(new int[] { 't', '\u0101', 'n', 'e' }, word.getMaoriCodePoints());
+        assertTrue(word.isEqualStrict(new Word("T\u0101ne", null)));
+    }
+
+    @Test
+    public void testCorrectCharacters() {
+        Word word = new Word("t\u0101ne", "man");
+        int[] response = { 't', 'a', 0, 'e' };
+        Word input = Word.fromMaoriCodePoints(response, response.length);
+        assertEquals("tae", input.getMaori());
+
+        assertFalse(word.isEqualStrict(input));
+        assertArrayEquals(new boolean[] { true, false, false, true }, word.getCorrectCharacters());
+
+        assertTrue(word.isEqualStrict(Word.fromMaoriCodePoints(new int[] { 't', '\u0101', 'n', 'e' }, 4)));
+        assertArrayEquals(new boolean[] { true, true, true, true }, word.getCorrectCharacters());
+    }
 }
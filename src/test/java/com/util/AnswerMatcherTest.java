@@ -0,0 +1,107 @@
+package com.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.enums.MatchStrictness;
+import com.enums.Status;
+import com.models.Word;
+
+import org.junit.jupiter.api.Test;
+
+public class AnswerMatcherTest {
+    private static int[] __codePoints(String s) {
+        return s.codePoints().toArray();
+    }
+
+    private static boolean __matches(AnswerMatcher matcher, String expected, String actual) {
+        int[] spelling = __codePoints(expected);
+        return matcher.matches(spelling, __codePoints(actual), new boolean[spelling.length]);
+    }
+
+    @Test
+    public void testFold() {
+        assertEquals('a', AnswerMatcher.fold('ā'));
+        assertEquals('u', AnswerMatcher.fold('ū'));
+        assertEquals('e', AnswerMatcher.fold('é'));
+        assertEquals('æ', AnswerMatcher.fold('æ')); // Not an accented letter
+        assertEquals('w', AnswerMatcher.fold('w'));
+    }
+
+    @Test
+    public void testExact() {
+        AnswerMatcher matcher = AnswerMatcher.EXACT;
+        assertTrue(__matches(matcher, "tūnga waka", "tūnga waka"));
+        assertFalse(__matches(matcher, "tūnga waka", "tunga waka"));
+    }
+
+    @Test
+    public void testMacronInsensitive() {
+        AnswerMatcher matcher = new AnswerMatcher(MatchStrictness.MACRON_INSENSITIVE, 0);
+        assertTrue(__matches(matcher, "tūnga waka", "tunga waka"));
+        assertFalse(__matches(matcher, "tūnga waka", "tonga waka"));
+
+        // Characters which only differ by macron still count as right
+        int[] spelling = __codePoints("mā");
+        boolean[] correct = new boolean[spelling.length];
+        assertFalse(matcher.matches(spelling, new int[] { 'm', 0 }, correct));
+        assertArrayEquals(new boolean[] { true, false }, correct);
+    }
+
+    @Test
+    public void testTolerant() {
+        AnswerMatcher matcher = new AnswerMatcher(MatchStrictness.TOLERANT, 1);
+        assertTrue(__matches(matcher, "tūnga waka", "tunga waka"));
+        assertTrue(__matches(matcher, "tūnga waka", "tunga wak")); // Deletion
+        assertTrue(__matches(matcher, "tūnga waka", "tunnga waka")); // Insertion
+        assertTrue(__matches(matcher, "tūnga waka", "tunga wako")); // Substitution
+        assertFalse(__matches(matcher, "tūnga waka", "tonga wako"));
+        assertFalse(__matches(matcher, "tūnga waka", "tunga"));
+
+        AnswerMatcher lenient = new AnswerMatcher(MatchStrictness.TOLERANT, 2);
+        assertTrue(__matches(lenient, "tūnga waka", "tonga wako"));
+        assertFalse(__matches(lenient, "kia ora", "kai oar ra"));
+    }
+
+    @Test
+    public void testWordStatus() {
+        AnswerMatcher matcher = new AnswerMatcher(MatchStrictness.MACRON_INSENSITIVE, 0);
+        Word word = new Word("Mā", "mother");
+        assertTrue(word.isEqual(new Word("ma", null), matcher));
+        assertEquals(Status.MASTERED, word.getStatus());
+
+        Word strict = new Word("Mā", "mother");
+        assertFalse(strict.isEqualStrict(new Word("ma", null)));
+        assertEquals(Status.FAULTED, strict.getStatus());
+    }
+
+    @Test
+    public void testComposeMacron() {
+        assertEquals('ā', AnswerMatcher.composeMacron('a'));
+        assertEquals('Ū', AnswerMatcher.composeMacron('U'));
+        assertEquals('k', AnswerMatcher.composeMacron('k')); // Can't have a macron
+        assertEquals(AnswerMatcher.combiningMacron, AnswerMatcher.composeMacron(AnswerMatcher.combiningMacron));
+    }
+
+    @Test
+    public void testTypedMacronTiles() {
+        // A tile keeps the last character typed, with the macron typed after a vowel
+        assertEquals("ā", AnswerMatcher.lastCharacter("a\u0304"));
+        assertEquals("ō", AnswerMatcher.lastCharacter("ko\u0304"));
+        assertEquals("k", AnswerMatcher.lastCharacter("ak"));
+        assertEquals("\u0304", AnswerMatcher.lastCharacter("\u0304"));
+
+        // Tiles are read into the same code points as the normalised spelling
+        String[] tiles = { "k", "a\u0304", "k", "ā" };
+        int[] answer = new int[tiles.length];
+        for (int i = 0; i < tiles.length; i++)
+            answer[i] = AnswerMatcher.readCharacter(tiles[i]);
+        assertEquals(0, AnswerMatcher.readCharacter(""));
+
+        Word word = new Word("kākā", "parrot");
+        assertTrue(word.isEqual(Word.fromMaoriCodePoints(answer, answer.length), AnswerMatcher.EXACT));
+        assertEquals(Status.MASTERED, word.getStatus());
+    }
+}
@@ -0,0 +1,59 @@
+package com.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.models.Word;
+
+import org.junit.jupiter.api.Test;
+
+public class CsvWordListTest {
+    private static CsvWordList open(String content) throws IOException {
+        Path f = Files.createTempFile("words", ".csv");
+        f.toFile().deleteOnExit();
+        Files.write(f, content.getBytes(StandardCharsets.UTF_8));
+        return CsvWordList.open(f);
+    }
+
+    @Test
+    public void testMacronsAndQuoting() throws IOException {
+        CsvWordList list = open("Tūnga Waka,Car Parking\r\n\"Rūma, Huihui\",\"Meeting \"\"Room\"\"\"\n\nōku,\"my\nown\"");
+        assertEquals(3, list.size());
+
+        Word w = list.get(0);
+        assertEquals("tūnga waka", w.getMaori());
+        assertEquals("car parking", w.getEnglish());
+
+        w = list.get(1);
+        assertEquals("rūma, huihui", w.getMaori());
+        assertEquals("meeting \"room\"", w.getEnglish());
+
+        w = list.get(2);
+        assertEquals("ōku", w.getMaori());
+        assertEquals("my\nown", w.getEnglish());
+    }
+
+    @Test
+    public void testInvalidRow() {
+        assertThrows(IOException.class, () -> open("hello,world\nnocomma\n"));
+    }
+
+    @Test
+    public void testFileChangedAfterOpening() throws IOException {
+        Path f = Files.createTempFile("words", ".csv");
+        f.toFile().deleteOnExit();
+        Files.write(f, "kia ora,hello\nmōrena,good morning\n".getBytes(StandardCharsets.UTF_8));
+        CsvWordList list = CsvWordList.open(f);
+
+        // Truncating the file in place must not affect the words already opened
+        Files.write(f, new byte[0]);
+        assertEquals(2, list.size());
+        assertEquals("mōrena", list.get(1).getMaori());
+        assertEquals("good morning", list.get(1).getEnglish());
+    }
+}
@@ -0,0 +1,115 @@
+package com.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.models.APIModels.JSONMutation;
+import com.models.APIModels.MutationType;
+import com.models.APIModels.Response;
+import com.models.APIModels.ResponseStatus;
+
+import org.junit.jupiter.api.Test;
+
+public class MutationJournalTest {
+    private static JSONMutation __score(int account, String token, int score) {
+        JSONMutation m = new JSONMutation();
+        m.type = MutationType.Score;
+        m.usr_id = account;
+        m.token = token;
+        m.score = score;
+        m.num_stars = 1;
+        return m;
+    }
+
+    @Test
+    public void testRestoresPendingChanges() throws IOException {
+        Path dir = Files.createTempDirectory("journal");
+        Path path = dir.resolve("journal.log");
+
+        MutationJournal journal = new MutationJournal(path, false);
+        journal.append(__score(1, "a", 10));
+        journal.append(__score(2, "b", 20));
+        journal.append(__score(1, "a", 30));
+        journal.shutdown();
+
+        // A change half written when the application closed should be ignored
+        Files.write(path, "+{\"seq\":3,\"ty".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        journal = new MutationJournal(path, false);
+        List<JSONMutation> pending = journal.getPending(1);
+        assertEquals(2, pending.size());
+        assertEquals(10, pending.get(0).score);
+        assertEquals(30, pending.get(1).score);
+        assertEquals(1, journal.getPending(2).size());
+
+        // New changes continue on from the restored ones
+        journal.append(__score(1, "a", 40));
+        assertEquals(3, journal.getPending(1).get(2).seq);
+        journal.shutdown();
+
+        Files.delete(path);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testDiscard() throws IOException {
+        Path dir = Files.createTempDirectory("journal");
+        Path path = dir.resolve("journal.log");
+
+        MutationJournal journal = new MutationJournal(path, false);
+        CompletableFuture<Boolean> result = journal.append(__score(1, "a", 10));
+        journal.append(__score(2, "b", 20));
+        journal.discard(1);
+        assertTrue(result.isCancelled());
+        assertEquals(0, journal.getPending(1).size());
+        journal.shutdown();
+
+        journal = new MutationJournal(path, false);
+        assertEquals(0, journal.getPending(1).size());
+        assertEquals(1, journal.getPending(2).size());
+        journal.shutdown();
+
+        Files.delete(path);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testChangesFollowTheAccountAcrossSignIns() throws IOException {
+        Path dir = Files.createTempDirectory("journal");
+        Path path = dir.resolve("journal.log");
+
+        // The student signed in again, and got a new token, between these changes
+        MutationJournal journal = new MutationJournal(path, false);
+        journal.append(__score(1, "old", 10));
+        journal.setToken(1, "new");
+        journal.append(__score(1, "new", 20));
+        assertEquals(2, journal.getPending(1).size());
+
+        CompletableFuture<Boolean> result = journal.getResult(journal.getPending(1).get(0).seq);
+        journal.discard(1);
+        assertTrue(result.isCancelled());
+        assertEquals(0, journal.getPending(1).size());
+        journal.shutdown();
+
+        Files.delete(path);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testOnlyClientErrorsAreRejections() {
+        // Only these count towards dropping a change, anything else is retried
+        for (int code : new int[] { 400, 401, 403, 404, 422 })
+            assertTrue(new Response("{}", ResponseStatus.Failure, code, "/").isRejected(), "status " + code);
+        for (int code : new int[] { 200, 408, 429, 500, 502, 503, 504 })
+            assertFalse(new Response("{}", ResponseStatus.Failure, code, "/").isRejected(), "status " + code);
+    }
+}
@@ -0,0 +1,51 @@
+package com.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import com.models.Word;
+
+import org.junit.jupiter.api.Test;
+
+public class PackedWordListTest {
+    @Test
+    public void testCompileAndRebuild() throws IOException {
+        Path dir = Files.createTempDirectory("packs");
+        Path csv = dir.resolve("topic");
+        Path pack = dir.resolve("topic.pack");
+        Files.write(csv, "Kīhini,Kitchen\n\"Rūma, Huihui\",Meeting Room\n".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(PackedWordList.isCurrent(pack, csv));
+        PackedWordList.compile(csv, pack);
+        assertTrue(PackedWordList.isCurrent(pack, csv));
+
+        PackedWordList words = PackedWordList.open(pack);
+        assertEquals(2, words.size());
+        Word w = words.get(1);
+        assertEquals("rūma, huihui", w.getMaori());
+        assertEquals("meeting room", w.getEnglish());
+
+        // Touching the csv keeps the pack, which then remembers the new time so the
+        // csv isn't checksummed again
+        FileTime touched = FileTime.fromMillis(Files.getLastModifiedTime(csv).toMillis() + 60_000);
+        Files.setLastModifiedTime(csv, touched);
+        assertTrue(PackedWordList.isCurrent(pack, csv));
+        assertEquals(touched.toMillis(), ByteBuffer.wrap(Files.readAllBytes(pack)).getLong(16));
+
+        // Changing the csv should invalidate the pack
+        Files.write(csv, "Ararewa,Lift\n".getBytes(StandardCharsets.UTF_8));
+        assertFalse(PackedWordList.isCurrent(pack, csv));
+
+        Files.delete(pack);
+        Files.delete(csv);
+        Files.delete(dir);
+    }
+}
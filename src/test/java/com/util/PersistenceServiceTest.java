@@ -0,0 +1,29 @@
+package com.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class PersistenceServiceTest {
+    @Test
+    public void testCoalescesWrites() {
+        PersistenceService service = new PersistenceService();
+        AtomicInteger writes = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        for (int i = 1; i <= 100; i++) {
+            int value = i;
+            service.schedule("test", () -> {
+                writes.incrementAndGet();
+                written.set(value);
+            });
+        }
+        service.flush();
+
+        // Only the latest write should have happened
+        assertEquals(1, writes.get());
+        assertEquals(100, written.get());
+        service.shutdown();
+    }
+}
@@ -0,0 +1,67 @@
+package com.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.enums.Avatar;
+
+import org.junit.jupiter.api.Test;
+
+public class PriceCatalogueTest {
+    private static final Map<Avatar, Integer> defaults = Map.of(Avatar.DEFAULT, 0, Avatar.NINJA, 100);
+
+    @Test
+    public void testLoadsSnapshot() throws IOException {
+        Path dir = Files.createTempDirectory("prices");
+        Path snapshot = dir.resolve("prices.json");
+        String json = "{\"version\":1,\"etag\":\"\\\"abc\\\"\",\"fetchedAt\":" + System.currentTimeMillis()
+                + ",\"data\":[{\"name\":\"ninja\",\"price\":42}]}";
+        Files.write(snapshot, json.getBytes(StandardCharsets.UTF_8));
+
+        // A fresh snapshot should be used as is, without contacting the api
+        PriceCatalogue prices = new PriceCatalogue(defaults, Duration.ofHours(1), snapshot, (path, etag, modified) -> {
+            throw new AssertionError("Fresh prices should not be fetched");
+        });
+        assertFalse(prices.isStale());
+        assertEquals(42, prices.get(Avatar.NINJA));
+        assertEquals(0, prices.get(Avatar.DEFAULT));
+
+        Files.delete(snapshot);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testInvalidSnapshot() throws IOException {
+        Path dir = Files.createTempDirectory("prices");
+        Path snapshot = dir.resolve("prices.json");
+        Files.write(snapshot, "{\"version\":1,\"data\":[".getBytes(StandardCharsets.UTF_8));
+
+        // Stand in for the api being unreachable, so the test never touches the network
+        AtomicInteger fetches = new AtomicInteger();
+        PriceCatalogue prices = new PriceCatalogue(defaults, Duration.ofHours(1), snapshot, (path, etag, modified) -> {
+            fetches.incrementAndGet();
+            return CompletableFuture.failedFuture(new IOException("offline"));
+        });
+        assertTrue(prices.isStale());
+        assertEquals(100, prices.get(Avatar.NINJA));
+
+        // The failed refresh falls back to the defaults, and waits before retrying
+        assertEquals(1, fetches.get());
+        assertFalse(prices.isStale());
+        assertEquals(100, prices.get(Avatar.NINJA));
+        assertEquals(1, fetches.get());
+
+        Files.deleteIfExists(snapshot);
+        Files.delete(dir);
+    }
+}
@@ -0,0 +1,154 @@
+package com.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.enums.SoundPriority;
+
+import org.junit.jupiter.api.Test;
+
+public class SoundMixerTest {
+    private long now = 0;
+
+    /**
+     * A channel which plays until it is stopped.
+     */
+    private static class FakeChannel implements SoundMixer.Channel {
+        private boolean playing = false;
+
+        @Override
+        public void play() {
+            this.playing = true;
+        }
+
+        @Override
+        public void stop() {
+            this.playing = false;
+        }
+
+        @Override
+        public boolean isPlaying() {
+            return this.playing;
+        }
+    }
+
+    /**
+     * A channel which, like an audio clip, plays another copy over the top each
+     * time it is played, and stops every copy at once.
+     */
+    private static class OverlappingChannel implements SoundMixer.Channel {
+        private int copies = 0;
+
+        @Override
+        public void play() {
+            this.copies++;
+        }
+
+        @Override
+        public void stop() {
+            this.copies = 0;
+        }
+
+        @Override
+        public boolean isPlaying() {
+            return this.copies > 0;
+        }
+    }
+
+    private SoundMixer __mixer(int maxVoices) {
+        SoundMixer mixer = new SoundMixer(maxVoices, () -> this.now);
+        mixer.configure("pop", SoundPriority.LOW, 80);
+        mixer.configure("kapai", SoundPriority.NORMAL, 0);
+        mixer.configure("correct", SoundPriority.HIGH, 0);
+        return mixer;
+    }
+
+    @Test
+    public void testCooldown() {
+        SoundMixer mixer = this.__mixer(4);
+        assertTrue(mixer.play("pop", new FakeChannel()));
+        this.now += 50_000_000; // 50ms later
+        assertFalse(mixer.play("pop", new FakeChannel()));
+        this.now += 50_000_000;
+        assertTrue(mixer.play("pop", new FakeChannel()));
+        assertEquals(1, mixer.getDropped("pop"));
+    }
+
+    @Test
+    public void testPolyphonyCutsOffOldest() {
+        SoundMixer mixer = this.__mixer(2);
+        FakeChannel first = new FakeChannel();
+        FakeChannel second = new FakeChannel();
+        FakeChannel third = new FakeChannel();
+        assertTrue(mixer.play("kapai", first));
+        assertTrue(mixer.play("kapai", second));
+        assertTrue(mixer.play("kapai", third));
+
+        assertFalse(first.isPlaying());
+        assertTrue(second.isPlaying());
+        assertTrue(third.isPlaying());
+        assertEquals(1, mixer.getCutOff("kapai"));
+        assertEquals(0, mixer.getDropped("kapai"));
+    }
+
+    @Test
+    public void testFinishedVoicesFreeRoom() {
+        SoundMixer mixer = this.__mixer(1);
+        FakeChannel first = new FakeChannel();
+        mixer.play("kapai", first);
+        first.stop(); // Finished on its own
+        assertTrue(mixer.play("kapai", new FakeChannel()));
+        assertEquals(0, mixer.getCutOff("kapai"));
+    }
+
+    @Test
+    public void testPlayingAChannelAgainRestartsIt() {
+        SoundMixer mixer = this.__mixer(2);
+        OverlappingChannel clip = new OverlappingChannel();
+        assertTrue(mixer.play("kapai", clip));
+        assertTrue(mixer.play("kapai", clip));
+        assertEquals(1, clip.copies);
+
+        // The restarted clip still only takes one voice
+        OverlappingChannel other = new OverlappingChannel();
+        assertTrue(mixer.play("kapai", other));
+        assertEquals(1, clip.copies);
+        assertEquals(1, other.copies);
+        assertEquals(0, mixer.getCutOff("kapai"));
+
+        // So the limit applies once the voices are full
+        assertTrue(mixer.play("kapai", new OverlappingChannel()));
+        assertEquals(0, clip.copies);
+        assertEquals(1, mixer.getCutOff("kapai"));
+    }
+
+    @Test
+    public void testPriority() {
+        SoundMixer mixer = this.__mixer(2);
+        FakeChannel pop = new FakeChannel();
+        FakeChannel kapai = new FakeChannel();
+        mixer.play("pop", pop);
+        mixer.play("kapai", kapai);
+
+        // The least important sound makes room, even though it isn't the oldest
+        FakeChannel correct = new FakeChannel();
+        assertTrue(mixer.play("correct", correct));
+        assertFalse(pop.isPlaying());
+        assertTrue(kapai.isPlaying());
+
+        // High priority sounds are never starved, lower ones are dropped instead
+        assertTrue(mixer.play("correct", new FakeChannel()));
+        assertFalse(kapai.isPlaying());
+        this.now += 100_000_000;
+        assertFalse(mixer.play("pop", new FakeChannel()));
+        assertFalse(mixer.play("kapai", new FakeChannel()));
+
+        assertEquals(1, mixer.getDropped("pop"));
+        assertEquals(1, mixer.getDropped("kapai"));
+        assertEquals(1, mixer.getCutOff("pop"));
+        assertEquals(1, mixer.getCutOff("kapai"));
+        assertEquals(0, mixer.getDropped("correct"));
+        assertEquals("kapai: 1 dropped, 1 cut off, pop: 1 dropped, 1 cut off", mixer.report());
+    }
+}
@@ -0,0 +1,137 @@
+package com.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class TickSchedulerTest {
+    private long now = 0;
+    private final ManualTimer timer = new ManualTimer();
+
+    /**
+     * A timer which only runs its tasks when the test moves the clock forward.
+     */
+    private class ManualTimer implements TickScheduler.Timer {
+        private final List<Long> deadlines = new ArrayList<>();
+        private final List<FutureTask<?>> tasks = new ArrayList<>();
+
+        @Override
+        public Future<?> schedule(Runnable task, long delay) {
+            FutureTask<?> future = new FutureTask<>(task, null);
+            this.deadlines.add(TickSchedulerTest.this.now + delay);
+            this.tasks.add(future);
+            return future;
+        }
+
+        @Override
+        public void shutdown() {
+            this.tasks.forEach(task -> task.cancel(false));
+        }
+
+        /**
+         * Move the clock forward, running every task which falls due on the way in
+         * order.
+         */
+        private void advanceTo(long time) {
+            while (true) {
+                int next = -1;
+                for (int i = 0; i < this.tasks.size(); i++) {
+                    long deadline = this.deadlines.get(i);
+                    if (deadline <= time && (next == -1 || deadline < this.deadlines.get(next)))
+                        next = i;
+                }
+                if (next == -1)
+                    break;
+                TickSchedulerTest.this.now = Long.max(TickSchedulerTest.this.now, this.deadlines.remove(next));
+                this.tasks.remove(next).run();
+            }
+            TickSchedulerTest.this.now = time;
+        }
+    }
+
+    @Test
+    public void testDeadlines() {
+        TickScheduler scheduler = new TickScheduler(Runnable::run, () -> this.now, this.timer);
+        List<Long> ticks = new ArrayList<>();
+        scheduler.every(100, 20, () -> ticks.add(this.now));
+
+        this.timer.advanceTo(99);
+        assertTrue(ticks.isEmpty()); // Never early
+        this.timer.advanceTo(100);
+        this.timer.advanceTo(139);
+        assertEquals(List.of(100L, 120L), ticks);
+
+        // The tick due at 140 runs late, but the next is still measured from the first
+        // deadline, so they don't drift
+        this.now = 145;
+        this.timer.advanceTo(180);
+        assertEquals(List.of(100L, 120L, 145L, 160L, 180L), ticks);
+    }
+
+    @Test
+    public void testMissedDeadlinesAreSkipped() {
+        TickScheduler scheduler = new TickScheduler(Runnable::run, () -> this.now, this.timer);
+        AtomicInteger count = new AtomicInteger();
+        scheduler.every(0, 10, count::incrementAndGet);
+        this.timer.advanceTo(0);
+        assertEquals(1, count.get());
+
+        // The javafx thread was busy, so the next tick runs late
+        this.now = 95;
+        this.timer.advanceTo(95);
+        assertEquals(2, count.get());
+        this.timer.advanceTo(99);
+        assertEquals(2, count.get());
+        this.timer.advanceTo(100);
+        assertEquals(3, count.get());
+    }
+
+    @Test
+    public void testCancel() {
+        TickScheduler scheduler = new TickScheduler(Runnable::run, () -> this.now, this.timer);
+        AtomicInteger count = new AtomicInteger();
+        TickScheduler.Ticket ticket = scheduler.every(0, 10, count::incrementAndGet);
+
+        this.timer.advanceTo(30);
+        assertEquals(4, count.get());
+        ticket.cancel();
+        assertTrue(ticket.isCancelled());
+        this.timer.advanceTo(100);
+        assertEquals(4, count.get());
+    }
+
+    @Test
+    public void testPulses() {
+        List<Runnable> pulses = new ArrayList<>();
+        TickScheduler scheduler = new TickScheduler(pulses::add, () -> this.now, this.timer);
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        scheduler.every(10, 10, first::incrementAndGet);
+        scheduler.every(10, 10, second::incrementAndGet);
+        TickScheduler.Ticket ticket = scheduler.every(10, 10, cancelled::incrementAndGet);
+
+        // Callbacks which fall due together, or again before the pulse runs, are run
+        // once in a single pulse
+        this.timer.advanceTo(30);
+        assertEquals(1, pulses.size());
+        ticket.cancel(); // Already due, but must not run
+        pulses.remove(0).run();
+        assertEquals(1, first.get());
+        assertEquals(1, second.get());
+        assertEquals(0, cancelled.get());
+
+        this.timer.advanceTo(40);
+        assertEquals(1, pulses.size());
+        pulses.remove(0).run();
+        assertEquals(2, first.get());
+        assertEquals(0, cancelled.get());
+    }
+}
@@ -0,0 +1,96 @@
+package com.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.models.Word;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class WordRepositoryTest {
+    static final String p = "./testingRepositoryFiles";
+
+    private static void createFile(String path, String content) throws IOException {
+        FileWriter w = new FileWriter(new File(path));
+        w.write(content);
+        w.close();
+    }
+
+    @BeforeAll
+    public static void before() throws IOException {
+        new File(p).mkdir();
+        createFile(p + "/topic", "hello,world\nwild,things\n");
+
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+            large.append("kupu" + i + ",word" + i + "\n");
+        createFile(p + "/large", large.toString());
+    }
+
+    private static HashSet<String> maori(List<Word> words) {
+        HashSet<String> s = new HashSet<>();
+        words.forEach(w -> s.add(w.getMaori()));
+        return s;
+    }
+
+    @Test
+    public void testSeededSampleIsRepeatable() throws IOException {
+        WordRepository repo = WordRepository.forDirectory(p);
+        List<Word> w1 = repo.sample("large", 5, new SplittableRandom(42));
+        List<Word> w2 = repo.sample("large", 5, new SplittableRandom(42));
+        assertEquals(5, w1.size());
+        assertEquals(maori(w1), maori(w2));
+    }
+
+    @Test
+    public void testSampleHasNoDuplicates() throws IOException {
+        WordRepository repo = WordRepository.forDirectory(p);
+        assertEquals(1000, maori(repo.sample("large", 1000)).size());
+        assertEquals(1000, maori(repo.sample("large", 5000)).size());
+        assertEquals(50, maori(repo.sampleStreaming("large", 50, new SplittableRandom())).size());
+        assertEquals(1000, maori(repo.sampleStreaming("large", 5000, new SplittableRandom())).size());
+        assertTrue(repo.sampleStreaming("large", 0, new SplittableRandom()).isEmpty());
+    }
+
+    @Test
+    public void testSampleReturnsFreshWords() throws IOException {
+        WordRepository repo = WordRepository.forDirectory(p);
+        List<Word> w1 = repo.sample("topic", 2);
+        List<Word> w2 = repo.sample("topic", 2);
+        assertEquals(2, w1.size());
+        assertEquals(2, repo.getWordCount("topic"));
+        // Games change word status, so the cache must never hand out the same instance
+        assertNotSame(w1.get(0), w2.get(0));
+    }
+
+    @Test
+    public void testReloadsChangedFile() throws IOException, InterruptedException {
+        WordRepository repo = WordRepository.forDirectory(p);
+        createFile(p + "/changing", "one,tahi\n");
+        assertEquals(1, repo.getWordCount("changing"));
+
+        createFile(p + "/changing", "one,tahi\ntwo,rua\nthree,toru\n");
+        // The watcher runs in the background, so give it some time to notice
+        for (int i = 0; i < 100 && repo.getWordCount("changing") != 3; i++)
+            Thread.sleep(100);
+        assertEquals(3, repo.getWordCount("changing"));
+    }
+
+    @AfterAll
+    public static void after() throws IOException {
+        File f = new File(p);
+        Arrays.asList(f.list()).forEach(x -> new File(p + "/" + x).delete());
+        f.delete();
+    }
+}